@@ -0,0 +1,92 @@
+package io.github.x4ala1c.tsid.benchmark;
+
+import io.github.x4ala1c.tsid.CrockfordCodec;
+import io.github.x4ala1c.tsid.TsidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of encoding and decoding a single ID, in each form, and per ID of a bulk batch of 1024 IDs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrockfordCodecBenchmark {
+
+    private static final int BATCH = 1024;
+
+    private final long[] values = new long[BATCH];
+    private final String[] strings = new String[BATCH];
+    private final byte[] encoded = new byte[BATCH * CrockfordCodec.BULK_STRIDE];
+    private final long[] decoded = new long[BATCH];
+    private final char[] chars = new char[CrockfordCodec.ENCODED_LENGTH];
+    private final byte[] bytes = new byte[CrockfordCodec.ENCODED_LENGTH];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        TsidGenerator.defaultGenerator().fill(values);
+        for (int i = 0; i < BATCH; i++) {
+            strings[i] = CrockfordCodec.encode(values[i]);
+        }
+        CrockfordCodec.encodeAll(values, 0, BATCH, encoded, 0, (byte) '\n');
+    }
+
+    private int next() {
+        return index = (index + 1) & (BATCH - 1);
+    }
+
+    @Benchmark
+    public String encodeString() {
+        return CrockfordCodec.encode(values[next()]);
+    }
+
+    @Benchmark
+    public char[] encodeChars() {
+        CrockfordCodec.encode(values[next()], chars, 0);
+        return chars;
+    }
+
+    @Benchmark
+    public byte[] encodeBytes() {
+        CrockfordCodec.encode(values[next()], bytes, 0);
+        return bytes;
+    }
+
+    @Benchmark
+    public long decode() {
+        return CrockfordCodec.decode(strings[next()], 0);
+    }
+
+    @Benchmark
+    public long tryDecode() {
+        return CrockfordCodec.tryDecode(strings[next()], 0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public byte[] encodeAll() {
+        CrockfordCodec.encodeAll(values, 0, BATCH, encoded, 0, (byte) '\n');
+        return encoded;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int decodeAll() {
+        return CrockfordCodec.decodeAll(encoded, 0, decoded, 0, BATCH, (byte) '\n');
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.x4ala1c.tsid.benchmark;
+
+import io.github.x4ala1c.tsid.Tsid;
+import io.github.x4ala1c.tsid.TsidArrays;
+import io.github.x4ala1c.tsid.TsidConfiguration;
+import io.github.x4ala1c.tsid.TsidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to sort 1 000 000 IDs made of ascending shards of several nodes, concatenated, with {@link TsidArrays} and
+ * with {@link Arrays}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TsidArraysBenchmark {
+
+    private static final int LENGTH = 1_000_000;
+
+    @Param({"1", "16", "1024"})
+    public int shards;
+
+    private final long[] source = new long[LENGTH];
+    private final long[] values = new long[LENGTH];
+    private final Tsid[] sourceTsids = new Tsid[LENGTH];
+    private final Tsid[] tsids = new Tsid[LENGTH];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final int shardLength = LENGTH / shards;
+        for (int shard = 0; shard < shards; shard++) {
+            final int length = shard == shards - 1 ? LENGTH - shard * shardLength : shardLength;
+            TsidGenerator.generator(TsidConfiguration.builder().node(shard).build())
+                    .fill(source, shard * shardLength, length);
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            sourceTsids[i] = Tsid.fromLong(source[i]);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        System.arraycopy(source, 0, values, 0, LENGTH);
+        System.arraycopy(sourceTsids, 0, tsids, 0, LENGTH);
+    }
+
+    @Benchmark
+    public long[] arraysSort() {
+        Arrays.sort(values);
+        return values;
+    }
+
+    @Benchmark
+    public long[] arraysParallelSort() {
+        Arrays.parallelSort(values);
+        return values;
+    }
+
+    @Benchmark
+    public long[] radixSort() {
+        TsidArrays.sort(values);
+        return values;
+    }
+
+    @Benchmark
+    public long[] radixParallelSort() {
+        TsidArrays.parallelSort(values);
+        return values;
+    }
+
+    @Benchmark
+    public Tsid[] arraysSortTsids() {
+        Arrays.sort(tsids);
+        return tsids;
+    }
+
+    @Benchmark
+    public Tsid[] radixSortTsids() {
+        TsidArrays.sort(tsids);
+        return tsids;
+    }
+}
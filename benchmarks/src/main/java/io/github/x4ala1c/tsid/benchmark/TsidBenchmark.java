@@ -0,0 +1,79 @@
+package io.github.x4ala1c.tsid.benchmark;
+
+import io.github.x4ala1c.tsid.Tsid;
+import io.github.x4ala1c.tsid.TsidCache;
+import io.github.x4ala1c.tsid.TsidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of converting {@link Tsid} to and from its {@code String} form, with and without the caches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TsidBenchmark {
+
+    private static final int COUNT = 1024;
+
+    private final long[] values = new long[COUNT];
+    private final Tsid[] tsids = new Tsid[COUNT];
+    private final String[] strings = new String[COUNT];
+    private final TsidCache cache = TsidCache.builder().capacity(COUNT * 2).build();
+    private int index;
+
+    @Setup
+    public void setUp() {
+        TsidGenerator.defaultGenerator().fill(values);
+        for (int i = 0; i < COUNT; i++) {
+            tsids[i] = Tsid.fromLong(values[i]);
+            strings[i] = tsids[i].asString();
+            cache.fromString(strings[i]);
+        }
+    }
+
+    private int next() {
+        return index = (index + 1) & (COUNT - 1);
+    }
+
+    @Benchmark
+    public Tsid fromString() {
+        return Tsid.fromString(strings[next()]);
+    }
+
+    @Benchmark
+    public long tryParse() {
+        return Tsid.tryParse(strings[next()]);
+    }
+
+    @Benchmark
+    public Tsid fromStringCached() {
+        return cache.fromString(strings[next()]);
+    }
+
+    /**
+     * Encodes a new {@link Tsid} each time, so that its cached {@code String} does not help.
+     */
+    @Benchmark
+    public String asString() {
+        return Tsid.fromLong(values[next()]).asString();
+    }
+
+    @Benchmark
+    public String asStringCached() {
+        return tsids[next()].asString();
+    }
+}
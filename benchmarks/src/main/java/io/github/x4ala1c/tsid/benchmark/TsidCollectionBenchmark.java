@@ -0,0 +1,126 @@
+package io.github.x4ala1c.tsid.benchmark;
+
+import io.github.x4ala1c.tsid.Tsid;
+import io.github.x4ala1c.tsid.TsidGenerator;
+import io.github.x4ala1c.tsid.TsidLongSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per ID of building and probing collections of {@link Tsid}s: {@link HashSet} through {@code hashCode},
+ * {@link TreeSet} through {@code compareTo}, and {@link TsidLongSet} over raw values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TsidCollectionBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    @Param({"1", "16"})
+    public int nodes;
+
+    private long[] values;
+    private Tsid[] tsids;
+    private Set<Tsid> hashSet;
+    private Set<Tsid> treeSet;
+    private TsidLongSet longSet;
+
+    @Setup
+    public void setUp() {
+        values = new long[SIZE];
+        final int perNode = SIZE / nodes;
+        for (int node = 0; node < nodes; node++) {
+            final long[] part = new long[perNode];
+            TsidGenerator.threadGenerator().fill(part);
+            for (int i = 0; i < perNode; i++) {
+                values[node * perNode + i] = part[i] ^ ((long) node << 12);
+            }
+        }
+        tsids = new Tsid[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            tsids[i] = Tsid.fromLong(values[i]);
+        }
+        hashSet = buildHashSet();
+        treeSet = buildTreeSet();
+        longSet = buildLongSet();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public Set<Tsid> buildHashSet() {
+        final Set<Tsid> result = new HashSet<>();
+        for (Tsid tsid : tsids) {
+            result.add(tsid);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public Set<Tsid> buildTreeSet() {
+        final Set<Tsid> result = new TreeSet<>();
+        for (Tsid tsid : tsids) {
+            result.add(tsid);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public TsidLongSet buildLongSet() {
+        final TsidLongSet result = new TsidLongSet();
+        for (long value : values) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int containsHashSet() {
+        int count = 0;
+        for (Tsid tsid : tsids) {
+            count += hashSet.contains(tsid) ? 1 : 0;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int containsTreeSet() {
+        int count = 0;
+        for (Tsid tsid : tsids) {
+            count += treeSet.contains(tsid) ? 1 : 0;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int containsLongSet() {
+        int count = 0;
+        for (long value : values) {
+            count += longSet.contains(value) ? 1 : 0;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.x4ala1c.tsid.benchmark;
+
+import io.github.x4ala1c.tsid.Tsid;
+import io.github.x4ala1c.tsid.TsidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a single {@link TsidGenerator} shared by 1, 4 and all available threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TsidGeneratorBenchmark {
+
+    private final TsidGenerator generator = TsidGenerator.defaultGenerator();
+    private final long[] batch = new long[256];
+
+    @Benchmark
+    @Threads(1)
+    public Tsid generate1Thread() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Tsid generate4Threads() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Tsid generateMaxThreads() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long generateLong1Thread() {
+        return generator.generateLong();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long generateLongMaxThreads() {
+        return generator.generateLong();
+    }
+
+    /**
+     * Reserves 256 IDs per call, so the score is in batches.
+     */
+    @Benchmark
+    @Threads(1)
+    public long[] fill256() {
+        generator.fill(batch);
+        return batch;
+    }
+}
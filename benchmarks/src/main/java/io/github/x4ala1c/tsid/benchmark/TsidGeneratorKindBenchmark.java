@@ -0,0 +1,105 @@
+package io.github.x4ala1c.tsid.benchmark;
+
+import io.github.x4ala1c.tsid.BufferedTsidGenerator;
+import io.github.x4ala1c.tsid.StripedTsidGenerator;
+import io.github.x4ala1c.tsid.TsidConfiguration;
+import io.github.x4ala1c.tsid.TsidGenerator;
+import io.github.x4ala1c.tsid.TsidGeneratorPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of the ways to share generators between all available threads: the global generator, one shared
+ * instance, one instance per thread, and the striped, pooled and buffered generators.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class TsidGeneratorKindBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+
+        final TsidGenerator instance = TsidGenerator.generator(TsidConfiguration.builder().node(1).build());
+        final StripedTsidGenerator striped = StripedTsidGenerator.generator(
+                TsidConfiguration.builder().node(1).build(), 4);
+        final TsidGeneratorPool pool = TsidGeneratorPool.pool(TsidConfiguration.builder().build());
+        final AtomicInteger nodes = new AtomicInteger();
+        BufferedTsidGenerator buffered;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            buffered = BufferedTsidGenerator.builder(TsidGenerator.defaultGenerator()).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            buffered.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PerThread {
+
+        TsidGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setUp(Shared shared) {
+            generator = TsidGenerator.generator(TsidConfiguration.builder()
+                    .node(shared.nodes.getAndIncrement() % 1024)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public long global() {
+        return TsidGenerator.globalGenerateLong();
+    }
+
+    @Benchmark
+    public long sharedInstance(Shared shared) {
+        return shared.instance.generateLong();
+    }
+
+    @Benchmark
+    public long instancePerThread(PerThread perThread) {
+        return perThread.generator.generateLong();
+    }
+
+    @Benchmark
+    public long threadGenerator() {
+        return TsidGenerator.threadGenerator().generateLong();
+    }
+
+    @Benchmark
+    public long striped(Shared shared) {
+        return shared.striped.generateLong();
+    }
+
+    @Benchmark
+    public long pooled(Shared shared) {
+        return shared.pool.generateLong();
+    }
+
+    @Benchmark
+    public long buffered(Shared shared) {
+        return shared.buffered.nextLong();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.x4ala1c.tsid.benchmark;
+
+import io.github.x4ala1c.tsid.TsidConfiguration;
+import io.github.x4ala1c.tsid.TsidGenerator;
+import io.github.x4ala1c.tsid.TsidSequenceSeed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a generator with each {@link TsidSequenceSeed}, with a clock that moves on every read so that every ID
+ * starts a new seeded sequence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TsidSequenceSeedBenchmark {
+
+    @Param({"SECURE_RANDOM", "SPLITTABLE_RANDOM", "THREAD_LOCAL_RANDOM", "ZERO"})
+    public TsidSequenceSeed sequenceSeed;
+
+    private TsidGenerator generator;
+    private long millis = 1_700_000_000_000L;
+
+    @Setup
+    public void setUp() {
+        generator = TsidGenerator.generator(TsidConfiguration.builder()
+                .sequenceSeed(sequenceSeed)
+                .clock(() -> millis++)
+                .build());
+    }
+
+    @Benchmark
+    public long generateLong() {
+        return generator.generateLong();
+    }
+}
@@ -0,0 +1,334 @@
+package io.github.x4ala1c.tsid.benchmark;
+
+import io.github.x4ala1c.tsid.TsidConfiguration;
+import io.github.x4ala1c.tsid.TsidGenerator;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Soak test of the uniqueness and ordering of {@link TsidGenerator}s, at a scale that does not fit into a heap
+ * collection.
+ * <p>
+ * Worker threads draw IDs from a set of generators with distinct nodes, each batch from the next generator in turn,
+ * so that every generator is shared between threads. Each thread checks that the IDs it gets from a generator are
+ * strictly ascending, and fills a heap buffer which is sorted and spilled to a run file through an off-heap buffer
+ * once full. The runs are then memory-mapped and merged in a single k-way pass, which finds every duplicate, and
+ * checks that every run is sorted. Memory is bounded by {@code --memory}, whatever the number of IDs, so 10^9 IDs and
+ * more only need disk space, 8 bytes per ID.
+ * <p>
+ * Options, all optional:
+ * <ul>
+ * <li> {@code --ids <count>}: IDs to generate, 100 000 000 by default.
+ * <li> {@code --threads <count>}: Worker threads, the number of processors by default.
+ * <li> {@code --nodes <count>}: Generators, each with its own node, half the number of threads by default.
+ * <li> {@code --memory <MiB>}: Heap used by the run buffers of all the threads, 512 by default.
+ * <li> {@code --dir <path>}: Directory of the run files, a new temporary directory by default.
+ * </ul>
+ * Exits with status 1 if any duplicate or ordering violation is found.
+ */
+public final class TsidSoak {
+
+    private static final int BATCH = 4096;
+    private static final int SPILL_BYTES = 1 << 20;
+    private static final int MAX_RUN_LENGTH = 1 << 27;
+    private static final long REPORT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final int MAX_REPORTED_DUPLICATES = 10;
+
+    private final long ids;
+    private final int threads;
+    private final TsidGenerator[] generators;
+    private final int runLength;
+    private final Path directory;
+
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder orderingViolations = new LongAdder();
+    private final List<Path> runs = new ArrayList<>();
+    private final AtomicLong runCounter = new AtomicLong();
+
+    private TsidSoak(long ids, int threads, int nodes, long memoryBytes, Path directory) {
+        this.ids = ids;
+        this.threads = threads;
+        this.generators = new TsidGenerator[nodes];
+        for (int node = 0; node < nodes; node++) {
+            generators[node] = TsidGenerator.generator(TsidConfiguration.builder()
+                    .node(node)
+                    .metrics(true)
+                    .build());
+        }
+        this.runLength = (int) Math.max(BATCH, Math.min(MAX_RUN_LENGTH, memoryBytes / Long.BYTES / threads));
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long ids = 100_000_000L;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int nodes = -1;
+        long memoryMiB = 512;
+        Path directory = null;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value of " + args[i]);
+            }
+            final String value = args[i + 1];
+            switch (args[i]) {
+                case "--ids":
+                    ids = Long.parseLong(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--nodes":
+                    nodes = Integer.parseInt(value);
+                    break;
+                case "--memory":
+                    memoryMiB = Long.parseLong(value);
+                    break;
+                case "--dir":
+                    directory = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (nodes < 0) {
+            nodes = Math.max(1, threads / 2);
+        }
+        if (ids < 1 || threads < 1 || nodes < 1 || nodes > 1024 || memoryMiB < 1) {
+            throw new IllegalArgumentException("Options must be positive, with at most 1024 nodes");
+        }
+        final boolean temporary = directory == null;
+        if (temporary) {
+            directory = Files.createTempDirectory("tsid-soak");
+        } else {
+            Files.createDirectories(directory);
+        }
+        final TsidSoak soak = new TsidSoak(ids, threads, nodes, memoryMiB << 20, directory);
+        final boolean passed;
+        try {
+            passed = soak.run();
+        } finally {
+            if (temporary) {
+                Files.deleteIfExists(directory);
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        System.out.printf("Generating %,d IDs with %d threads and %d generators into %s, %,d IDs per run%n",
+                ids, threads, generators.length, directory, runLength);
+        final long generateNanos = generate();
+        report("Generated", ids, generateNanos);
+        for (int node = 0; node < generators.length; node++) {
+            System.out.printf("  generator %d: %s%n", node, generators[node].metrics().snapshot());
+        }
+
+        System.out.printf("Merging %d runs%n", runs.size());
+        final long mergeStart = System.nanoTime();
+        final long[] result;
+        try {
+            result = merge();
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+        report("Merged", result[0], System.nanoTime() - mergeStart);
+
+        final long violations = orderingViolations.sum() + result[2];
+        System.out.printf("IDs: %,d, duplicates: %,d, ordering violations: %,d%n", result[0], result[1], violations);
+        return result[0] == ids && result[1] == 0 && violations == 0;
+    }
+
+    private long generate() throws InterruptedException {
+        final Thread[] workers = new Thread[threads];
+        final long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            final int index = i;
+            final long quota = ids / threads + (i < ids % threads ? 1 : 0);
+            workers[i] = new Thread(() -> work(index, quota), "tsid-soak-" + i);
+            workers[i].start();
+        }
+        long lastReport = start;
+        while (isAlive(workers)) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+            final long now = System.nanoTime();
+            if (now - lastReport >= REPORT_NANOS) {
+                report("  progress", generated.sum(), now - start);
+                lastReport = now;
+            }
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static boolean isAlive(Thread[] workers) {
+        for (Thread worker : workers) {
+            if (worker.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void work(int index, long quota) {
+        final long[] buffer = new long[(int) Math.min(runLength, quota)];
+        final long[] lastValues = new long[generators.length];
+        Arrays.fill(lastValues, -1);
+        final ByteBuffer spill = ByteBuffer.allocateDirect(SPILL_BYTES);
+        int batch = index;
+        long remaining = quota;
+        while (remaining > 0) {
+            final int length = (int) Math.min(buffer.length, remaining);
+            for (int offset = 0; offset < length; offset += BATCH) {
+                final int count = Math.min(BATCH, length - offset);
+                final int node = batch++ % generators.length;
+                generators[node].fill(buffer, offset, count);
+                // A generator never goes back, whichever thread it is shared with.
+                long lastValue = lastValues[node];
+                for (int i = offset; i < offset + count; i++) {
+                    if (buffer[i] <= lastValue) {
+                        orderingViolations.increment();
+                    }
+                    lastValue = buffer[i];
+                }
+                lastValues[node] = lastValue;
+                generated.add(count);
+            }
+            Arrays.sort(buffer, 0, length);
+            spill(buffer, length, spill);
+            remaining -= length;
+        }
+    }
+
+    private void spill(long[] buffer, int length, ByteBuffer spill) {
+        final Path run = directory.resolve(String.format("run-%06d.bin", runCounter.getAndIncrement()));
+        try (FileChannel channel = FileChannel.open(run, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            final LongBuffer longs = ((ByteBuffer) spill.clear()).asLongBuffer();
+            for (int offset = 0; offset < length; offset += longs.capacity()) {
+                final int count = Math.min(longs.capacity(), length - offset);
+                longs.clear();
+                longs.put(buffer, offset, count);
+                spill.clear().limit(count * Long.BYTES);
+                while (spill.hasRemaining()) {
+                    channel.write(spill);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write run " + run, e);
+        }
+        synchronized (runs) {
+            runs.add(run);
+        }
+    }
+
+    /**
+     * Merges all the runs, and returns the number of IDs, of duplicates and of unsorted IDs within runs.
+     */
+    private long[] merge() throws IOException {
+        final int count = runs.size();
+        final LongBuffer[] buffers = new LongBuffer[count];
+        for (int i = 0; i < count; i++) {
+            try (FileChannel channel = FileChannel.open(runs.get(i), StandardOpenOption.READ)) {
+                buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asLongBuffer();
+            }
+        }
+        // Min-heap of the runs, by the value at their head.
+        final long[] heads = new long[count];
+        final int[] heap = new int[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (buffers[i].hasRemaining()) {
+                heads[i] = buffers[i].get();
+                heap[size++] = i;
+            }
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(heap, heads, size, i);
+        }
+        long merged = 0;
+        long duplicates = 0;
+        long unsorted = 0;
+        long previous = -1;
+        final long start = System.nanoTime();
+        long lastReport = start;
+        while (size > 0) {
+            final int run = heap[0];
+            final long value = heads[run];
+            if (value == previous) {
+                if (duplicates++ < MAX_REPORTED_DUPLICATES) {
+                    System.out.printf("  duplicate: %d%n", value);
+                }
+            }
+            previous = value;
+            if (++merged % (1 << 24) == 0 && System.nanoTime() - lastReport >= REPORT_NANOS) {
+                lastReport = System.nanoTime();
+                report("  progress", merged, lastReport - start);
+            }
+            if (buffers[run].hasRemaining()) {
+                final long next = buffers[run].get();
+                if (next < value) {
+                    unsorted++;
+                }
+                heads[run] = next;
+            } else {
+                heap[0] = heap[--size];
+            }
+            siftDown(heap, heads, size, 0);
+        }
+        return new long[]{merged, duplicates, unsorted};
+    }
+
+    private static void siftDown(int[] heap, long[] heads, int size, int index) {
+        final int run = heap[index];
+        final long value = heads[run];
+        int parent = index;
+        int child;
+        while ((child = 2 * parent + 1) < size) {
+            if (child + 1 < size && heads[heap[child + 1]] < heads[heap[child]]) {
+                child++;
+            }
+            if (heads[heap[child]] >= value) {
+                break;
+            }
+            heap[parent] = heap[child];
+            parent = child;
+        }
+        heap[parent] = run;
+    }
+
+    private static void report(String label, long count, long nanos) {
+        final double seconds = nanos / 1e9;
+        final Runtime runtime = Runtime.getRuntime();
+        long direct = 0;
+        long mapped = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                direct = pool.getMemoryUsed();
+            } else if ("mapped".equals(pool.getName())) {
+                mapped = pool.getMemoryUsed();
+            }
+        }
+        System.out.printf("%s %,d IDs in %.1f s, %,.0f IDs/s, heap %,d MiB, direct %,d MiB, mapped %,d MiB%n",
+                label, count, seconds, count / seconds, (runtime.totalMemory() - runtime.freeMemory()) >> 20,
+                direct >> 20, mapped >> 20);
+    }
+}
@@ -0,0 +1,296 @@
+package io.github.x4ala1c.tsid;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Serves {@link Tsid} from a bounded ring of IDs pre-generated by a {@link TsidGenerator}, for callers that cannot
+ * afford the occasional slow call to the generator.
+ * <p>
+ * A background daemon thread keeps the ring filled: once the number of buffered IDs drops below the low watermark, it
+ * refills the ring up to the high watermark in one batch. Taking an ID is a single compare-and-set on the ring's head.
+ * When the ring is empty, the ID is generated directly from the wrapped {@link TsidGenerator} instead.
+ * <p>
+ * Since buffered IDs are generated ahead of their use, their timestamps lag behind the time they are taken. The
+ * background thread discards IDs older than half of the maximum staleness, and checks the ring at least twice per
+ * maximum staleness, so that taken IDs never lag more than the maximum staleness behind the clock.
+ * <p>
+ * If the wrapped {@link TsidGenerator} fails to refill the ring, for instance because its high-water mark cannot be
+ * written, the background thread backs off and retries, while taking from the empty ring generates directly, so the
+ * failure surfaces to the callers until it clears. Generators whose overflow policy fails fast are rejected, since a
+ * whole batch rarely fits into a single tick.
+ * <p>
+ * All IDs come from the same {@link TsidGenerator}, so they are unique, but the IDs taken by different threads are not
+ * ordered relative to each other.
+ */
+public final class BufferedTsidGenerator implements AutoCloseable {
+
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final TsidGenerator generator;
+    private final TsidClock clock;
+    private final long epoch;
+    private final TsidLayout layout;
+    private final AtomicLongArray ring;
+    private final int mask;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final long maxStalenessMillis;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicBoolean refillRequested = new AtomicBoolean();
+    private final Thread producer;
+
+    private volatile boolean running = true;
+
+    private BufferedTsidGenerator(Builder builder) {
+        this.generator = builder.generator;
+        this.clock = generator.getConfiguration().getClock();
+        this.epoch = generator.getConfiguration().getEpoch();
+        this.layout = generator.getConfiguration().getLayout();
+        this.ring = new AtomicLongArray(builder.capacity);
+        this.mask = builder.capacity - 1;
+        this.lowWatermark = builder.lowWatermark;
+        this.highWatermark = builder.highWatermark;
+        this.maxStalenessMillis = builder.maxStalenessMillis;
+        this.producer = new Thread(this::produce, "tsid-buffered-generator");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    /**
+     * Simple Builder pattern for {@link BufferedTsidGenerator}.
+     */
+    public static final class Builder {
+
+        private static final int DEFAULT_CAPACITY = 4096;
+        private static final long DEFAULT_MAX_STALENESS_MILLIS = 1000;
+        private static final int UNSET = Integer.MIN_VALUE;
+
+        private final TsidGenerator generator;
+        private int capacity = DEFAULT_CAPACITY;
+        private int lowWatermark = UNSET;
+        private int highWatermark = UNSET;
+        private long maxStalenessMillis = DEFAULT_MAX_STALENESS_MILLIS;
+
+        private Builder(TsidGenerator generator) {
+            this.generator = generator;
+        }
+
+        /**
+         * Sets the capacity of the ring, rounded up to the next power of 2. Default is 4096.
+         */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Sets the number of buffered IDs below which the ring is refilled. Default is a quarter of the high watermark.
+         */
+        public Builder lowWatermark(int lowWatermark) {
+            this.lowWatermark = lowWatermark;
+            return this;
+        }
+
+        /**
+         * Sets the number of buffered IDs the ring is refilled up to. Default is the capacity.
+         */
+        public Builder highWatermark(int highWatermark) {
+            this.highWatermark = highWatermark;
+            return this;
+        }
+
+        /**
+         * Sets how far, in milliseconds, the timestamp of a taken ID may lag behind the clock. Default is 1000.
+         */
+        public Builder maxStalenessMillis(long maxStalenessMillis) {
+            this.maxStalenessMillis = maxStalenessMillis;
+            return this;
+        }
+
+        /**
+         * Builds the {@link BufferedTsidGenerator} and starts its background thread.
+         *
+         * @return new instance of {@link BufferedTsidGenerator}.
+         *
+         * @throws IllegalArgumentException If any of the values is out of its acceptable range, or the overflow policy
+         *                                  of the generator fails fast.
+         */
+        public BufferedTsidGenerator build() {
+            if (generator.getConfiguration().getOverflowPolicy().isFailFast()) {
+                throw new IllegalArgumentException("Overflow policy of the generator must not fail fast");
+            }
+            if (capacity <= 0 || capacity > (1 << 30)) {
+                throw new IllegalArgumentException("Capacity must be between 1 and " + (1 << 30));
+            }
+            final int highWatermark = this.highWatermark == UNSET ? capacity : this.highWatermark;
+            final int lowWatermark = this.lowWatermark == UNSET ? highWatermark / 4 : this.lowWatermark;
+            if (highWatermark <= 0 || highWatermark > capacity) {
+                throw new IllegalArgumentException("High watermark must be between 1 and " + capacity);
+            }
+            if (lowWatermark < 0 || lowWatermark >= highWatermark) {
+                throw new IllegalArgumentException("Low watermark must be between 0 and " + (highWatermark - 1));
+            }
+            if (maxStalenessMillis < 2) {
+                throw new IllegalArgumentException("Max staleness must be at least 2 milliseconds");
+            }
+            final Builder roundedBuilder = new Builder(generator)
+                    .capacity(ceilingPowerOfTwo(capacity))
+                    .lowWatermark(lowWatermark)
+                    .highWatermark(highWatermark)
+                    .maxStalenessMillis(maxStalenessMillis);
+            return new BufferedTsidGenerator(roundedBuilder);
+        }
+
+        private static int ceilingPowerOfTwo(int value) {
+            final int highestOneBit = Integer.highestOneBit(value);
+            return highestOneBit == value ? value : highestOneBit << 1;
+        }
+    }
+
+    /**
+     * Gets a new {@link Builder} for {@link BufferedTsidGenerator}, wrapping {@link TsidGenerator}.
+     *
+     * @param generator The instance of {@link TsidGenerator} to pre-generate IDs from.
+     *
+     * @return new instance of {@link Builder}.
+     *
+     * @throws NullPointerException If the {@code generator} is null.
+     */
+    public static Builder builder(TsidGenerator generator) {
+        if (generator == null) {
+            throw new NullPointerException(TsidErrorMessage.NULL_GENERATOR);
+        }
+        return new Builder(generator);
+    }
+
+    /**
+     * Takes a {@link Tsid} from the ring, or generates it directly if the ring is empty.
+     *
+     * @return Instance of {@link Tsid}.
+     *
+     * @throws IllegalStateException If the ring is empty and the current time exceeds the maximum allowable timestamp
+     *                               value.
+     */
+    public Tsid next() {
+        return Tsid.fromLong(nextLong());
+    }
+
+    /**
+     * Takes the raw {@code long} value of a {@link Tsid} from the ring, or generates it directly if the ring is empty.
+     *
+     * @return {@code long} value of the {@link Tsid}.
+     *
+     * @throws IllegalStateException If the ring is empty and the current time exceeds the maximum allowable timestamp
+     *                               value.
+     */
+    public long nextLong() {
+        while (true) {
+            final long currentHead = head.get();
+            final long size = tail.get() - currentHead;
+            if (size <= 0) {
+                requestRefill();
+                return generator.generateLong();
+            }
+            final long value = ring.get((int) currentHead & mask);
+            if (head.compareAndSet(currentHead, currentHead + 1)) {
+                if (size <= lowWatermark) {
+                    requestRefill();
+                }
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of buffered IDs.
+     *
+     * @return Number of buffered IDs.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * Stops the background thread. IDs left in the ring can still be taken, after which all IDs are generated
+     * directly.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(producer);
+    }
+
+    private void requestRefill() {
+        if (!refillRequested.get() && refillRequested.compareAndSet(false, true)) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    private void produce() {
+        final long checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis / 2);
+        final long[] batch = new long[highWatermark];
+        long backoffNanos = MIN_BACKOFF_NANOS;
+        while (running) {
+            refillRequested.set(false);
+            try {
+                refill(batch);
+                backoffNanos = MIN_BACKOFF_NANOS;
+            } catch (RuntimeException e) {
+                // Callers see the same failure when they generate directly from the empty ring.
+                backOff(backoffNanos);
+                backoffNanos = Math.min(backoffNanos * 2, checkIntervalNanos);
+                continue;
+            }
+            if (!refillRequested.get()) {
+                LockSupport.parkNanos(this, checkIntervalNanos);
+            }
+        }
+    }
+
+    private void refill(long[] batch) {
+        discardStale();
+        final long currentTail = tail.get();
+        final int size = (int) (currentTail - head.get());
+        if (size <= lowWatermark) {
+            final int count = highWatermark - size;
+            generator.fill(batch, 0, count);
+            for (int i = 0; i < count; i++) {
+                ring.lazySet((int) (currentTail + i) & mask, batch[i]);
+            }
+            tail.set(currentTail + count);
+        }
+    }
+
+    /**
+     * Waits for {@code nanos}, ignoring refill requests, unless closed in the meantime.
+     */
+    private void backOff(long nanos) {
+        final long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+        while (running && remaining > 0) {
+            LockSupport.parkNanos(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    private void discardStale() {
+        final long oldestAllowedTimestamp = Math.floorDiv(clock.millis() - maxStalenessMillis / 2 - epoch,
+                layout.getTickMillis());
+        while (true) {
+            final long currentHead = head.get();
+            if (currentHead >= tail.get()) {
+                return;
+            }
+            final long value = ring.get((int) currentHead & mask);
+            if (layout.timestampOf(value) >= oldestAllowedTimestamp) {
+                return;
+            }
+            head.compareAndSet(currentHead, currentHead + 1);
+        }
+    }
+}
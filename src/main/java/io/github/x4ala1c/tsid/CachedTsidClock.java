@@ -0,0 +1,47 @@
+package io.github.x4ala1c.tsid;
+
+/**
+ * {@link TsidClock} whose time is refreshed every millisecond by a background daemon thread.
+ */
+final class CachedTsidClock implements TsidClock {
+
+    private volatile long currentMillis;
+
+    private CachedTsidClock() {
+        this.currentMillis = System.currentTimeMillis();
+    }
+
+    private static final class Holder {
+
+        private static final CachedTsidClock INSTANCE = start();
+
+        private static CachedTsidClock start() {
+            final CachedTsidClock clock = new CachedTsidClock();
+            final Thread ticker = new Thread(clock::tick, "tsid-cached-clock");
+            ticker.setDaemon(true);
+            ticker.start();
+            return clock;
+        }
+    }
+
+    static CachedTsidClock instance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public long millis() {
+        return currentMillis;
+    }
+
+    private void tick() {
+        while (true) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            currentMillis = System.currentTimeMillis();
+        }
+    }
+}
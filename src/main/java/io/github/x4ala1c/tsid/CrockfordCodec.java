@@ -1,16 +1,55 @@
 package io.github.x4ala1c.tsid;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Encoder/Decoder for {@link Tsid}. Converts the ID into Crockford's Base32 String and vice versa.
+ * <p>
+ * Besides {@code String}, the encoder can write the {@value #ENCODED_LENGTH} symbols of an ID directly into a
+ * caller-supplied {@code char[]}, {@code byte[]} (as ASCII), {@link ByteBuffer} or {@link Appendable}, without creating
+ * any intermediate object.
+ * <p>
+ * The decoder reads the symbols directly from a {@link CharSequence} or an ASCII {@code byte[]} at an offset, through
+ * a lookup table that also covers lowercase symbols and the {@code I}, {@code L} and {@code O} aliases. It never
+ * allocates, and comes in 2 flavors: {@code decode} throws {@link IllegalArgumentException} on invalid input, while
+ * {@code tryDecode} returns {@value #INVALID} instead, which is cheaper when invalid input is common.
+ * <p>
+ * For exports and imports of many IDs, {@code encodeAll} and {@code decodeAll} convert a {@code long[]} to and from a
+ * contiguous ASCII {@code byte[]} with a fixed stride of {@value #BULK_STRIDE} bytes: the symbols followed by a
+ * separator, such as {@code '\n'} or {@code ','}. They work 2 symbols at a time through pair lookup tables, and
+ * validate a whole batch with a single check instead of one per symbol.
  */
-final class CrockfordCodec {
+public final class CrockfordCodec {
+
+    /**
+     * Number of symbols of an encoded {@link Tsid}.
+     */
+    public static final int ENCODED_LENGTH = Tsid.MAX_STRING_LENGTH;
+
+    /**
+     * Value returned by {@code tryDecode} for invalid input. Valid {@link Tsid}s are never negative.
+     */
+    public static final long INVALID = -1;
+
+    /**
+     * Number of bytes taken by each ID in {@code encodeAll} and {@code decodeAll}: the symbols and a separator.
+     */
+    public static final int BULK_STRIDE = ENCODED_LENGTH + 1;
+
+    private static final int LAST_SYMBOL = ENCODED_LENGTH - 1;
+    private static final int SYMBOL_PAIRS = LAST_SYMBOL / 2;
+    private static final int BULK_BATCH = 64;
 
     private static final char[] encodingMapping;
-    private static final Map<Character, Byte> decodingMapping;
+    private static final byte[] encodingByteMapping;
+
+    /**
+     * Maps each of the 256 Latin-1 characters to its symbol value, or to -1 if it is not a valid symbol.
+     */
+    private static final byte[] decodingMapping;
 
     static {
         encodingMapping = new char[]{
@@ -19,49 +58,453 @@ final class CrockfordCodec {
                 'G', 'H', 'J', 'K', 'M', 'N', 'P', 'Q',
                 'R', 'S', 'T', 'V', 'W', 'X', 'Y', 'Z',
         };
-        final Map<Character, Byte> tmp = new HashMap<>();
+        encodingByteMapping = new byte[encodingMapping.length];
+        for (int i = 0; i < encodingMapping.length; i++) {
+            encodingByteMapping[i] = (byte) encodingMapping[i];
+        }
+        decodingMapping = new byte[256];
+        Arrays.fill(decodingMapping, (byte) -1);
         byte counter = 0;
         for (char c : encodingMapping) {
-            tmp.put(c, counter++);
+            decodingMapping[c] = counter;
+            decodingMapping[Character.toLowerCase(c)] = counter;
+            counter++;
         }
-        tmp.put('I', (byte) 1);
-        tmp.put('L', (byte) 1);
-        tmp.put('O', (byte) 0);
-        decodingMapping = Collections.unmodifiableMap(tmp);
+        decodingMapping['I'] = 1;
+        decodingMapping['i'] = 1;
+        decodingMapping['L'] = 1;
+        decodingMapping['l'] = 1;
+        decodingMapping['O'] = 0;
+        decodingMapping['o'] = 0;
     }
 
     private CrockfordCodec() {
     }
 
-    static String encode(long value) {
-        long currentValue = value;
-        final StringBuilder result = new StringBuilder();
-        for (byte counter = 1; counter < Tsid.MAX_STRING_LENGTH; counter++) {
-            final byte symbolValue = (byte) (currentValue >>> (Long.SIZE - 5));
-            result.append(encodingMapping[symbolValue]);
-            currentValue <<= 5;
+    /**
+     * Gets the index in the encoding mapping of the symbol at {@code position}. The first 12 symbols take 5 bits each,
+     * from the most significant, and the last symbol takes the remaining 4 bits.
+     */
+    private static int symbolAt(long value, int position) {
+        if (position == LAST_SYMBOL) {
+            return (int) value & 0xF;
         }
-        final byte symbolValue = (byte) (currentValue >>> (Long.SIZE - 4));
-        result.append(encodingMapping[symbolValue]);
-        return result.toString();
+        return (int) (value >>> (Long.SIZE - 5 - 5 * position)) & 0x1F;
+    }
+
+    private static void checkRange(int length, int offset) {
+        if (offset < 0 || offset > length - ENCODED_LENGTH) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + ENCODED_LENGTH
+                    + ") is out of bounds for length " + length);
+        }
+    }
+
+    /**
+     * Encodes {@code value} into Crockford's Base32 {@code String}.
+     *
+     * @param value The value of {@link Tsid} as long.
+     *
+     * @return {@code String} of {@value #ENCODED_LENGTH} symbols.
+     */
+    public static String encode(long value) {
+        final char[] result = new char[ENCODED_LENGTH];
+        encode(value, result, 0);
+        return new String(result);
     }
 
-    static long decode(String input) {
+    /**
+     * Encodes {@code value} into {@code destination}, starting from {@code offset}.
+     *
+     * @param value       The value of {@link Tsid} as long.
+     * @param destination The array to write the {@value #ENCODED_LENGTH} symbols into.
+     * @param offset      The index of the first symbol.
+     *
+     * @throws NullPointerException      If the {@code destination} is null.
+     * @throws IndexOutOfBoundsException If the symbols do not fit into {@code destination} from {@code offset}.
+     */
+    public static void encode(long value, char[] destination, int offset) {
+        if (destination == null) {
+            throw new NullPointerException("Destination is null");
+        }
+        checkRange(destination.length, offset);
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            destination[offset + i] = encodingMapping[symbolAt(value, i)];
+        }
+    }
+
+    /**
+     * Encodes {@code value} into {@code destination} as ASCII bytes, starting from {@code offset}.
+     *
+     * @param value       The value of {@link Tsid} as long.
+     * @param destination The array to write the {@value #ENCODED_LENGTH} symbols into.
+     * @param offset      The index of the first symbol.
+     *
+     * @throws NullPointerException      If the {@code destination} is null.
+     * @throws IndexOutOfBoundsException If the symbols do not fit into {@code destination} from {@code offset}.
+     */
+    public static void encode(long value, byte[] destination, int offset) {
+        if (destination == null) {
+            throw new NullPointerException("Destination is null");
+        }
+        checkRange(destination.length, offset);
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            destination[offset + i] = encodingByteMapping[symbolAt(value, i)];
+        }
+    }
+
+    /**
+     * Encodes {@code value} into {@code destination} as ASCII bytes, at its current position. The position is then
+     * advanced past the written symbols.
+     *
+     * @param value       The value of {@link Tsid} as long.
+     * @param destination The buffer to write the {@value #ENCODED_LENGTH} symbols into.
+     *
+     * @throws NullPointerException             If the {@code destination} is null.
+     * @throws BufferOverflowException          If the {@code destination} has less than {@value #ENCODED_LENGTH}
+     *                                          bytes remaining.
+     * @throws java.nio.ReadOnlyBufferException If the {@code destination} is read-only.
+     */
+    public static void encode(long value, ByteBuffer destination) {
+        if (destination == null) {
+            throw new NullPointerException("Destination is null");
+        }
+        if (destination.remaining() < ENCODED_LENGTH) {
+            throw new BufferOverflowException();
+        }
+        final int position = destination.position();
+        if (destination.hasArray()) {
+            encode(value, destination.array(), destination.arrayOffset() + position);
+        } else {
+            for (int i = 0; i < ENCODED_LENGTH; i++) {
+                destination.put(position + i, encodingByteMapping[symbolAt(value, i)]);
+            }
+        }
+        destination.position(position + ENCODED_LENGTH);
+    }
+
+    /**
+     * Encodes {@code value} into {@code destination}, appending one symbol at a time.
+     *
+     * @param value       The value of {@link Tsid} as long.
+     * @param destination The {@link Appendable} to append the {@value #ENCODED_LENGTH} symbols to.
+     *
+     * @throws NullPointerException If the {@code destination} is null.
+     * @throws IOException          If the {@code destination} fails to append.
+     */
+    public static void encode(long value, Appendable destination) throws IOException {
+        if (destination == null) {
+            throw new NullPointerException("Destination is null");
+        }
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            destination.append(encodingMapping[symbolAt(value, i)]);
+        }
+    }
+
+    /**
+     * Gets the value of {@code symbol}, or -1 if it is not a valid symbol. Characters above Latin-1 are mapped to -1
+     * without branching, by folding the sign of {@code 255 - symbol} into the result.
+     */
+    private static int symbolValue(int symbol) {
+        return decodingMapping[symbol & 0xFF] | ((0xFF - symbol) >> 31);
+    }
+
+    /**
+     * Accumulates the value of the 13 symbols. The first 12 symbols are shifted in by 5 bits, then the last symbol is
+     * added to the lowest 5 bits. Any invalid symbol turns {@code invalid} negative.
+     */
+    private static long decodeSymbols(CharSequence input, int offset) {
         long result = 0;
-        final char[] inputCharArray = input.toUpperCase().toCharArray();
-        for (int i = 0; i < (inputCharArray.length - 1); i++) {
-            final char symbol = inputCharArray[i];
-            if (!decodingMapping.containsKey(symbol)) {
-                throw new IllegalArgumentException("Invalid symbol: " + symbol);
+        int invalid = 0;
+        for (int i = 0; i < LAST_SYMBOL; i++) {
+            final int symbol = symbolValue(input.charAt(offset + i));
+            invalid |= symbol;
+            result = (result << 5) | symbol;
+        }
+        final int lastSymbol = symbolValue(input.charAt(offset + LAST_SYMBOL));
+        invalid |= lastSymbol;
+        result = (result << 4) | lastSymbol;
+        return (invalid | result) < 0 ? INVALID : result;
+    }
+
+    private static long decodeSymbols(byte[] input, int offset) {
+        long result = 0;
+        int invalid = 0;
+        for (int i = 0; i < LAST_SYMBOL; i++) {
+            final int symbol = symbolValue(input[offset + i] & 0xFF);
+            invalid |= symbol;
+            result = (result << 5) | symbol;
+        }
+        final int lastSymbol = symbolValue(input[offset + LAST_SYMBOL] & 0xFF);
+        invalid |= lastSymbol;
+        result = (result << 4) | lastSymbol;
+        return (invalid | result) < 0 ? INVALID : result;
+    }
+
+    /**
+     * Decodes the {@value #ENCODED_LENGTH} symbols of {@code input} starting from {@code offset}.
+     *
+     * @param input  The input to read the symbols from.
+     * @param offset The index of the first symbol.
+     *
+     * @return The value of {@link Tsid} as long, or {@value #INVALID} if any symbol is invalid, the value is negative,
+     *         or the symbols do not fit into {@code input} from {@code offset}.
+     *
+     * @throws NullPointerException If the {@code input} is null.
+     */
+    public static long tryDecode(CharSequence input, int offset) {
+        if (offset < 0 || offset > input.length() - ENCODED_LENGTH) {
+            return INVALID;
+        }
+        return decodeSymbols(input, offset);
+    }
+
+    /**
+     * Decodes the {@value #ENCODED_LENGTH} ASCII symbols of {@code input} starting from {@code offset}.
+     *
+     * @param input  The input to read the symbols from.
+     * @param offset The index of the first symbol.
+     *
+     * @return The value of {@link Tsid} as long, or {@value #INVALID} if any symbol is invalid, the value is negative,
+     *         or the symbols do not fit into {@code input} from {@code offset}.
+     *
+     * @throws NullPointerException If the {@code input} is null.
+     */
+    public static long tryDecode(byte[] input, int offset) {
+        if (offset < 0 || offset > input.length - ENCODED_LENGTH) {
+            return INVALID;
+        }
+        return decodeSymbols(input, offset);
+    }
+
+    /**
+     * Decodes the {@value #ENCODED_LENGTH} symbols of {@code input} starting from {@code offset}.
+     *
+     * @param input  The input to read the symbols from.
+     * @param offset The index of the first symbol.
+     *
+     * @return The value of {@link Tsid} as long.
+     *
+     * @throws NullPointerException      If the {@code input} is null.
+     * @throws IndexOutOfBoundsException If the symbols do not fit into {@code input} from {@code offset}.
+     * @throws IllegalArgumentException  If any symbol is invalid, or the value is negative.
+     */
+    public static long decode(CharSequence input, int offset) {
+        checkRange(input.length(), offset);
+        final long result = decodeSymbols(input, offset);
+        if (result == INVALID) {
+            for (int i = 0; i < ENCODED_LENGTH; i++) {
+                final char symbol = input.charAt(offset + i);
+                if (symbolValue(symbol) < 0) {
+                    throw new IllegalArgumentException("Invalid symbol: " + symbol);
+                }
             }
-            long shift = Long.SIZE - (5L * (i + 1));
-            result |= (((long) decodingMapping.get(symbol)) << shift);
+            throw new IllegalArgumentException("Value is below 0");
         }
-        final char symbol = inputCharArray[Tsid.MAX_STRING_LENGTH - 1];
-        if (!decodingMapping.containsKey(symbol)) {
-            throw new IllegalArgumentException("Invalid symbol: " + symbol);
+        return result;
+    }
+
+    /**
+     * Decodes the {@value #ENCODED_LENGTH} ASCII symbols of {@code input} starting from {@code offset}.
+     *
+     * @param input  The input to read the symbols from.
+     * @param offset The index of the first symbol.
+     *
+     * @return The value of {@link Tsid} as long.
+     *
+     * @throws NullPointerException      If the {@code input} is null.
+     * @throws IndexOutOfBoundsException If the symbols do not fit into {@code input} from {@code offset}.
+     * @throws IllegalArgumentException  If any symbol is invalid, or the value is negative.
+     */
+    public static long decode(byte[] input, int offset) {
+        checkRange(input.length, offset);
+        final long result = decodeSymbols(input, offset);
+        if (result == INVALID) {
+            for (int i = 0; i < ENCODED_LENGTH; i++) {
+                final int symbol = input[offset + i] & 0xFF;
+                if (symbolValue(symbol) < 0) {
+                    throw new IllegalArgumentException("Invalid symbol: " + (char) symbol);
+                }
+            }
+            throw new IllegalArgumentException("Value is below 0");
         }
-        result |= decodingMapping.get(symbol);
         return result;
     }
+
+    private static void checkBulkRange(int length, int offset, long size) {
+        if (offset < 0 || size < 0 || offset > length - size) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + size
+                    + ") is out of bounds for length " + length);
+        }
+    }
+
+    /**
+     * Encodes {@code length} values of {@code values} from {@code offset} into {@code destination} as ASCII bytes,
+     * starting from {@code destinationOffset}. Each value takes {@value #BULK_STRIDE} bytes: its symbols, followed by
+     * {@code separator}.
+     *
+     * @param values            The values of {@link Tsid} as long.
+     * @param offset            The index of the first value to encode.
+     * @param length            The number of values to encode.
+     * @param destination       The array to write the symbols into.
+     * @param destinationOffset The index of the first symbol.
+     * @param separator         The byte written after the symbols of each value.
+     *
+     * @return The number of bytes written, {@code length * }{@value #BULK_STRIDE}.
+     *
+     * @throws NullPointerException      If the {@code values} or the {@code destination} is null.
+     * @throws IndexOutOfBoundsException If the range is out of bounds of {@code values}, or the encoded values do not
+     *                                   fit into {@code destination} from {@code destinationOffset}.
+     */
+    public static int encodeAll(long[] values, int offset, int length, byte[] destination, int destinationOffset,
+                                byte separator) {
+        if (values == null || destination == null) {
+            throw new NullPointerException(values == null ? "Values is null" : "Destination is null");
+        }
+        checkBulkRange(values.length, offset, length);
+        checkBulkRange(destination.length, destinationOffset, (long) length * BULK_STRIDE);
+        final byte[] pairs = BulkTables.PAIR_ENCODING;
+        int position = destinationOffset;
+        for (int i = offset; i < offset + length; i++) {
+            final long value = values[i];
+            for (int pair = 0; pair < SYMBOL_PAIRS; pair++) {
+                final int index = ((int) (value >>> (Long.SIZE - 10 - 10 * pair)) & 0x3FF) << 1;
+                destination[position + 2 * pair] = pairs[index];
+                destination[position + 2 * pair + 1] = pairs[index + 1];
+            }
+            destination[position + LAST_SYMBOL] = encodingByteMapping[(int) value & 0xF];
+            destination[position + ENCODED_LENGTH] = separator;
+            position += BULK_STRIDE;
+        }
+        return position - destinationOffset;
+    }
+
+    /**
+     * Decodes the symbols at {@code position} 2 at a time. Any invalid symbol, or a negative result, makes the result
+     * negative.
+     */
+    private static long decodePairs(byte[] source, int position) {
+        final short[] pairs = BulkTables.PAIR_DECODING;
+        long result = 0;
+        int invalid = 0;
+        for (int pair = 0; pair < SYMBOL_PAIRS; pair++) {
+            final int index = ((source[position + 2 * pair] & 0xFF) << 8) | (source[position + 2 * pair + 1] & 0xFF);
+            final int value = pairs[index];
+            invalid |= value;
+            result = (result << 10) | value;
+        }
+        final int lastSymbol = decodingMapping[source[position + LAST_SYMBOL] & 0xFF];
+        invalid |= lastSymbol;
+        result = (result << 4) | lastSymbol;
+        return result | (invalid >> 31);
+    }
+
+    /**
+     * Decodes {@code length} values from {@code source}, starting from {@code sourceOffset}, into
+     * {@code destination} from {@code offset}. Each value takes {@value #BULK_STRIDE} bytes: its ASCII symbols,
+     * followed by {@code separator}. The separator after the last value is optional, so {@code source} needs
+     * {@code length * }{@value #BULK_STRIDE}{@code  - 1} bytes.
+     * <p>
+     * Decoding stops at the first invalid entry, that is, one with an invalid symbol, a negative value or a wrong
+     * separator. The returned count is then the index of that entry, relative to {@code offset}. The content of
+     * {@code destination} from that index on is unspecified.
+     *
+     * @param source       The array to read the symbols from.
+     * @param sourceOffset The index of the first symbol.
+     * @param destination  The array to write the values of {@link Tsid} into.
+     * @param offset       The index of the first value to write.
+     * @param length       The number of values to decode.
+     * @param separator    The byte expected after the symbols of each value.
+     *
+     * @return The number of values decoded, which is {@code length} if all entries are valid.
+     *
+     * @throws NullPointerException      If the {@code source} or the {@code destination} is null.
+     * @throws IndexOutOfBoundsException If the range is out of bounds of {@code destination}, or the encoded values do
+     *                                   not fit into {@code source} from {@code sourceOffset}.
+     */
+    public static int decodeAll(byte[] source, int sourceOffset, long[] destination, int offset, int length,
+                                byte separator) {
+        if (source == null || destination == null) {
+            throw new NullPointerException(source == null ? "Source is null" : "Destination is null");
+        }
+        checkBulkRange(destination.length, offset, length);
+        if (length == 0) {
+            return 0;
+        }
+        checkBulkRange(source.length, sourceOffset, (long) length * BULK_STRIDE - 1);
+        for (int batch = 0; batch < length; batch += BULK_BATCH) {
+            final int end = Math.min(length, batch + BULK_BATCH);
+            // The last separator is optional, so it is never read.
+            final int separated = Math.min(end, length - 1);
+            int position = sourceOffset + batch * BULK_STRIDE;
+            long invalid = 0;
+            for (int i = batch; i < separated; i++) {
+                final long value = decodePairs(source, position);
+                destination[offset + i] = value;
+                invalid |= value | -(long) ((source[position + ENCODED_LENGTH] ^ separator) & 0xFF);
+                position += BULK_STRIDE;
+            }
+            if (separated < end) {
+                final long value = decodePairs(source, position);
+                destination[offset + separated] = value;
+                invalid |= value;
+            }
+            if (invalid < 0) {
+                return firstInvalid(source, sourceOffset, destination, offset, batch, end, length, separator);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Finds the first invalid entry in {@code [batch, end)}, a batch that failed validation.
+     */
+    private static int firstInvalid(byte[] source, int sourceOffset, long[] destination, int offset, int batch,
+                                    int end, int length, byte separator) {
+        int position = sourceOffset + batch * BULK_STRIDE;
+        for (int i = batch; i < end; i++) {
+            if (destination[offset + i] < 0 || (i < length - 1 && source[position + ENCODED_LENGTH] != separator)) {
+                return i;
+            }
+            position += BULK_STRIDE;
+        }
+        return end;
+    }
+
+    /**
+     * Lookup tables of the bulk codec, which are only built on first use.
+     */
+    private static final class BulkTables {
+
+        /**
+         * Maps each 10-bit pair of symbols to its 2 ASCII symbols, at twice the index.
+         */
+        private static final byte[] PAIR_ENCODING;
+
+        /**
+         * Maps each 2 bytes, as a 16-bit big-endian index, to the 10-bit value of the pair, or to -1 if any of them is
+         * not a valid symbol.
+         */
+        private static final short[] PAIR_DECODING;
+
+        static {
+            PAIR_ENCODING = new byte[2 << 10];
+            for (int pair = 0; pair < 1 << 10; pair++) {
+                PAIR_ENCODING[pair << 1] = encodingByteMapping[pair >>> 5];
+                PAIR_ENCODING[(pair << 1) + 1] = encodingByteMapping[pair & 0x1F];
+            }
+            PAIR_DECODING = new short[1 << 16];
+            for (int high = 0; high < 256; high++) {
+                for (int low = 0; low < 256; low++) {
+                    final int highValue = decodingMapping[high];
+                    final int lowValue = decodingMapping[low];
+                    PAIR_DECODING[(high << 8) | low] = (short) ((highValue | lowValue) < 0
+                            ? -1
+                            : (highValue << 5) | lowValue);
+                }
+            }
+        }
+
+        private BulkTables() {
+        }
+    }
 }
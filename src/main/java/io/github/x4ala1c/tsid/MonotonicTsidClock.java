@@ -0,0 +1,31 @@
+package io.github.x4ala1c.tsid;
+
+/**
+ * {@link TsidClock} anchored to the wall-clock time once, then advanced by {@link System#nanoTime()}.
+ */
+final class MonotonicTsidClock implements TsidClock {
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final long anchorMillis;
+    private final long anchorNanos;
+
+    private MonotonicTsidClock() {
+        this.anchorMillis = System.currentTimeMillis();
+        this.anchorNanos = System.nanoTime();
+    }
+
+    private static final class Holder {
+
+        private static final MonotonicTsidClock INSTANCE = new MonotonicTsidClock();
+    }
+
+    static MonotonicTsidClock instance() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public long millis() {
+        return anchorMillis + (System.nanoTime() - anchorNanos) / NANOS_PER_MILLI;
+    }
+}
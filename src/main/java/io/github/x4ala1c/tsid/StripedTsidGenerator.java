@@ -0,0 +1,118 @@
+package io.github.x4ala1c.tsid;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates {@link Tsid} from multiple independent {@link TsidGenerator}s, called stripes, so that threads on different
+ * cores do not compete for the same generator.
+ * <p>
+ * The node bits of {@link Tsid} are split into 2 parts: the high bits hold the {@code node} from
+ * {@link TsidConfiguration}, and the low {@code stripeBits} bits hold the stripe's index. Each stripe therefore
+ * generates IDs under its own node value, which keeps the IDs unique across stripes, while still being roughly sorted
+ * by time.
+ * <p>
+ * Each thread is bound to one stripe, through a probe value assigned to the thread on its first use.
+ */
+public final class StripedTsidGenerator {
+
+    private static final int PROBE_INCREMENT = 0x9E3779B9;
+    private static final AtomicInteger PROBE_GENERATOR = new AtomicInteger();
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(
+            () -> new int[]{PROBE_GENERATOR.getAndAdd(PROBE_INCREMENT)});
+
+    private final TsidGenerator[] stripes;
+    private final int stripeMask;
+    private final int stripeShift;
+
+    private StripedTsidGenerator(TsidConfiguration configuration, int stripeBits) {
+        final int maxNode = configuration.getLayout().getMaxNode() >>> stripeBits;
+        if (configuration.getNode() > maxNode) {
+            throw new IllegalArgumentException("Node value must be between 0 and " + maxNode + " with " + stripeBits
+                    + " stripe bits");
+        }
+        this.stripes = new TsidGenerator[1 << stripeBits];
+        for (int i = 0; i < stripes.length; i++) {
+            final TsidConfiguration stripeConfiguration = configuration.toBuilder()
+                    .node((configuration.getNode() << stripeBits) | i)
+                    .build();
+            stripes[i] = new TsidGenerator(stripeConfiguration);
+        }
+        this.stripeMask = stripes.length - 1;
+        this.stripeShift = Integer.SIZE - stripeBits;
+    }
+
+    /**
+     * Gets {@link StripedTsidGenerator} with {@code 2^stripeBits} stripes, configured by {@link TsidConfiguration}.
+     *
+     * @param configuration The instance of {@link TsidConfiguration}. Its {@code node} must fit into the node bits
+     *                      left by the stripe's index.
+     * @param stripeBits    The number of node bits used for the stripe's index. Acceptable range is [0, node bits of
+     *                      the {@link TsidLayout}], which is [0, 10] with the default layout.
+     *
+     * @return Instance of {@link StripedTsidGenerator}.
+     *
+     * @throws NullPointerException     If the {@code configuration} is null.
+     * @throws IllegalArgumentException If the {@code stripeBits} is out of range, or the {@code node} does not fit.
+     */
+    public static StripedTsidGenerator generator(TsidConfiguration configuration, int stripeBits) {
+        if (configuration == null) {
+            throw new NullPointerException(TsidErrorMessage.NULL_CONFIGURATION);
+        }
+        final int nodeBits = configuration.getLayout().getNodeBits();
+        if (stripeBits < 0 || stripeBits > nodeBits) {
+            throw new IllegalArgumentException("Stripe bits must be between 0 and " + nodeBits);
+        }
+        return new StripedTsidGenerator(configuration, stripeBits);
+    }
+
+    /**
+     * Gets the number of stripes.
+     *
+     * @return Number of stripes.
+     */
+    public int stripes() {
+        return stripes.length;
+    }
+
+    /**
+     * Generates and returns a {@link Tsid} from the stripe of the current thread.
+     *
+     * @return Instance of {@link Tsid}.
+     *
+     * @throws IllegalStateException If the current time exceeds the maximum allowable timestamp value.
+     */
+    public Tsid generate() {
+        return stripe().generate();
+    }
+
+    /**
+     * Generates and returns the raw {@code long} value of a {@link Tsid} from the stripe of the current thread.
+     *
+     * @return {@code long} value of the generated {@link Tsid}.
+     *
+     * @throws IllegalStateException If the current time exceeds the maximum allowable timestamp value.
+     */
+    public long generateLong() {
+        return stripe().generateLong();
+    }
+
+    /**
+     * Fills the whole {@code ids} array with raw {@code long} values of newly generated {@link Tsid}s, from the stripe
+     * of the current thread.
+     *
+     * @param ids The array to fill.
+     *
+     * @throws NullPointerException  If the {@code ids} is null.
+     * @throws IllegalStateException If the current time exceeds the maximum allowable timestamp value.
+     */
+    public void fill(long[] ids) {
+        stripe().fill(ids);
+    }
+
+    private TsidGenerator stripe() {
+        if (stripeMask == 0) {
+            return stripes[0];
+        }
+        return stripes[(PROBE.get()[0] >>> stripeShift) & stripeMask];
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.x4ala1c.tsid;
+
+/**
+ * {@link TsidClock} backed by {@link System#currentTimeMillis()}.
+ */
+final class SystemTsidClock implements TsidClock {
+
+    static final SystemTsidClock INSTANCE = new SystemTsidClock();
+
+    private SystemTsidClock() {
+    }
+
+    @Override
+    public long millis() {
+        return System.currentTimeMillis();
+    }
+}
@@ -1,5 +1,14 @@
 package io.github.x4ala1c.tsid;
 
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
 import java.util.Objects;
 
 /**
@@ -16,15 +25,38 @@ import java.util.Objects;
  * sequence is securely randomized.
  * </ol>
  * <p>
+ * The widths above are the ones of the default {@link TsidLayout}, which can be customized through
+ * {@link TsidConfiguration}.
+ * <p>
+ * The parts of a Tsid can be extracted with the {@link TsidConfiguration} it was generated with, which gives the epoch
+ * and the {@link TsidLayout}. Conversely, {@link #lowerBound(Instant)} and {@link #upperBound(Instant)} give the range
+ * of Tsids generated within a time window, so that such a window can be queried as a range of IDs.
+ * <p>
  * The String form of the Tsid is in <a href="https://www.crockford.com/base32.html">Crockford's Base32</a>.
+ * <p>
+ * The binary form of the Tsid is its value as {@value #BYTES} big-endian bytes. Since the value is never negative,
+ * comparing 2 binary forms byte by byte, as unsigned bytes, gives the same order as {@link #compareTo(Tsid)}, so it can
+ * be used as-is for keys of off-heap or key-value stores. Java serialization writes the same 8 bytes through a small
+ * proxy, instead of the default form. The default form written by earlier releases is still read.
  */
 public final class Tsid implements java.io.Serializable, Comparable<Tsid> {
 
     private static final long serialVersionUID = 1L;
     static final byte MAX_STRING_LENGTH = Long.SIZE / 5 + 1;
 
+    /**
+     * Number of bytes of the binary form of {@link Tsid}.
+     */
+    public static final int BYTES = Long.BYTES;
+
     private final long value;
 
+    /**
+     * The encoded form, computed on the first call to {@code asString()}. Racing threads may each compute it, but
+     * always to an equal {@code String}.
+     */
+    private transient String encodedValue;
+
     Tsid(long value) {
         if (value < 0) {
             throw new IllegalArgumentException("Value is below 0");
@@ -53,14 +85,256 @@ public final class Tsid implements java.io.Serializable, Comparable<Tsid> {
         if (value == null) {
             throw new NullPointerException("Value is null");
         }
-        final String trimmedInput = value.trim();
-        if (trimmedInput.length() != MAX_STRING_LENGTH) {
+        final int start = trimmedStart(value);
+        if (trimmedEnd(value, start) - start != MAX_STRING_LENGTH) {
             throw new IllegalArgumentException("Value must be " + MAX_STRING_LENGTH + " characters long");
         }
-        final long decodedValue = CrockfordCodec.decode(trimmedInput);
+        final long decodedValue = CrockfordCodec.decode(value, start);
         return new Tsid(decodedValue);
     }
 
+    /**
+     * Parses the {@code long} value of {@link Tsid} from {@code CharSequence} value, under the same rules as
+     * {@link #fromString(String)}, but without throwing or allocating on invalid input.
+     *
+     * @param value The value of {@link Tsid} in Crockford's Base32 encoding.
+     * @return The value of {@link Tsid} as long, or {@link CrockfordCodec#INVALID} if {@code value} is null or not a
+     *         valid {@link Tsid}.
+     */
+    public static long tryParse(CharSequence value) {
+        if (value == null) {
+            return CrockfordCodec.INVALID;
+        }
+        final int start = trimmedStart(value);
+        if (trimmedEnd(value, start) - start != MAX_STRING_LENGTH) {
+            return CrockfordCodec.INVALID;
+        }
+        return CrockfordCodec.tryDecode(value, start);
+    }
+
+    /**
+     * Checks whether {@code value} is a valid {@link Tsid} in Crockford's Base32 encoding.
+     *
+     * @param value The value to check.
+     * @return {@code true} if {@link #fromString(String)} would accept {@code value}.
+     */
+    public static boolean isValid(CharSequence value) {
+        return tryParse(value) != CrockfordCodec.INVALID;
+    }
+
+    /**
+     * Gets the index of the first character that would be kept by {@link String#trim()}.
+     */
+    private static int trimmedStart(CharSequence value) {
+        final int length = value.length();
+        int start = 0;
+        while (start < length && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Gets the index after the last character that would be kept by {@link String#trim()}.
+     */
+    private static int trimmedEnd(CharSequence value, int start) {
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Gets {@link Tsid} instance from its binary form.
+     *
+     * @param value The {@value #BYTES} big-endian bytes of {@link Tsid}.
+     * @return {@link Tsid} instance.
+     */
+    public static Tsid fromBytes(byte[] value) {
+        if (value == null) {
+            throw new NullPointerException("Value is null");
+        }
+        if (value.length != BYTES) {
+            throw new IllegalArgumentException("Value must be " + BYTES + " bytes long");
+        }
+        return fromBytes(value, 0);
+    }
+
+    /**
+     * Gets {@link Tsid} instance from its binary form in {@code source}, starting from {@code offset}.
+     *
+     * @param source The array to read the {@value #BYTES} big-endian bytes of {@link Tsid} from.
+     * @param offset The index of the first byte.
+     * @return {@link Tsid} instance.
+     */
+    public static Tsid fromBytes(byte[] source, int offset) {
+        if (source == null) {
+            throw new NullPointerException("Source is null");
+        }
+        if (offset < 0 || offset > source.length - BYTES) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + BYTES
+                    + ") is out of bounds for length " + source.length);
+        }
+        long result = 0;
+        for (int i = 0; i < BYTES; i++) {
+            result = (result << 8) | (source[offset + i] & 0xFF);
+        }
+        return new Tsid(result);
+    }
+
+    /**
+     * Reads {@link Tsid} instance from its binary form at the current position of {@code source}, regardless of the
+     * byte order of {@code source}. The position is then advanced by {@value #BYTES}.
+     *
+     * @param source The buffer to read the {@value #BYTES} big-endian bytes of {@link Tsid} from.
+     * @return {@link Tsid} instance.
+     */
+    public static Tsid readFrom(ByteBuffer source) {
+        if (source == null) {
+            throw new NullPointerException("Source is null");
+        }
+        final long result = source.getLong();
+        return new Tsid(source.order() == ByteOrder.BIG_ENDIAN ? result : Long.reverseBytes(result));
+    }
+
+    /**
+     * Extracts the creation time, in milliseconds since the Unix epoch, from the raw {@code long} value of a
+     * {@link Tsid}. The time is truncated to the tick of the layout.
+     *
+     * @param value         The value of {@link Tsid} as long.
+     * @param configuration The {@link TsidConfiguration} the {@link Tsid} was generated with.
+     * @return Creation time of the {@link Tsid}, in milliseconds since the Unix epoch.
+     */
+    public static long timestampOf(long value, TsidConfiguration configuration) {
+        checkConfiguration(configuration);
+        final TsidLayout layout = configuration.getLayout();
+        return configuration.getEpoch() + layout.timestampOf(value) * layout.getTickMillis();
+    }
+
+    /**
+     * Extracts the node from the raw {@code long} value of a {@link Tsid}.
+     *
+     * @param value         The value of {@link Tsid} as long.
+     * @param configuration The {@link TsidConfiguration} the {@link Tsid} was generated with.
+     * @return Node of the {@link Tsid}.
+     */
+    public static int nodeOf(long value, TsidConfiguration configuration) {
+        checkConfiguration(configuration);
+        return configuration.getLayout().nodeOf(value);
+    }
+
+    /**
+     * Extracts the sequence from the raw {@code long} value of a {@link Tsid}.
+     *
+     * @param value         The value of {@link Tsid} as long.
+     * @param configuration The {@link TsidConfiguration} the {@link Tsid} was generated with.
+     * @return Sequence of the {@link Tsid}.
+     */
+    public static int sequenceOf(long value, TsidConfiguration configuration) {
+        checkConfiguration(configuration);
+        return configuration.getLayout().sequenceOf(value);
+    }
+
+    /**
+     * Gets the smallest {@link Tsid} that can be generated at or after {@code instant}, with the epoch of
+     * {@link TsidGenerator#defaultGenerator()} and the default {@link TsidLayout}.
+     *
+     * @param instant The start of the time window.
+     * @return The inclusive lower bound of the {@link Tsid}s generated at or after {@code instant}.
+     *
+     * @see #lowerBound(Instant, TsidConfiguration)
+     */
+    public static Tsid lowerBound(Instant instant) {
+        return lowerBound(instant, boundsConfiguration());
+    }
+
+    /**
+     * Gets the configuration of the bounds that do not take one. Only the epoch is read from the environment, so that
+     * computing a bound never claims a node.
+     */
+    private static TsidConfiguration boundsConfiguration() {
+        return TsidConfiguration.builder()
+                .epoch(TsidConfiguration.epochFromEnvironment())
+                .build();
+    }
+
+    /**
+     * Gets the smallest {@link Tsid} that can be generated at or after {@code instant}. Instants before the epoch give
+     * the smallest {@link Tsid}.
+     * <p>
+     * The bound is exact to the tick of the layout, so the {@link Tsid}s generated within the same tick as, but before,
+     * {@code instant} are above it too.
+     *
+     * @param instant       The start of the time window.
+     * @param configuration The {@link TsidConfiguration} the {@link Tsid}s are generated with.
+     * @return The inclusive lower bound of the {@link Tsid}s generated at or after {@code instant}.
+     *
+     * @throws IllegalArgumentException If the {@code instant} is after the maximum timestamp.
+     */
+    public static Tsid lowerBound(Instant instant, TsidConfiguration configuration) {
+        checkConfiguration(configuration);
+        final TsidLayout layout = configuration.getLayout();
+        final long timestamp = ticksOf(instant, configuration);
+        if (timestamp > layout.getMaxTimestamp()) {
+            throw new IllegalArgumentException("Instant is after the maximum timestamp");
+        }
+        return new Tsid(Math.max(0, timestamp) << layout.getTimestampShift());
+    }
+
+    /**
+     * Gets the largest {@link Tsid} that can be generated at or before {@code instant}, with the epoch of
+     * {@link TsidGenerator#defaultGenerator()} and the default {@link TsidLayout}.
+     *
+     * @param instant The end of the time window.
+     * @return The inclusive upper bound of the {@link Tsid}s generated at or before {@code instant}.
+     *
+     * @see #upperBound(Instant, TsidConfiguration)
+     */
+    public static Tsid upperBound(Instant instant) {
+        return upperBound(instant, boundsConfiguration());
+    }
+
+    /**
+     * Gets the largest {@link Tsid} that can be generated at or before {@code instant}. Instants after the maximum
+     * timestamp give the largest {@link Tsid}.
+     * <p>
+     * The bound is exact to the tick of the layout, so the {@link Tsid}s generated within the same tick as, but after,
+     * {@code instant} are below it too.
+     *
+     * @param instant       The end of the time window.
+     * @param configuration The {@link TsidConfiguration} the {@link Tsid}s are generated with.
+     * @return The inclusive upper bound of the {@link Tsid}s generated at or before {@code instant}.
+     *
+     * @throws IllegalArgumentException If the {@code instant} is before the epoch.
+     */
+    public static Tsid upperBound(Instant instant, TsidConfiguration configuration) {
+        checkConfiguration(configuration);
+        final TsidLayout layout = configuration.getLayout();
+        final long timestamp = ticksOf(instant, configuration);
+        if (timestamp < 0) {
+            throw new IllegalArgumentException("Instant is before the epoch");
+        }
+        if (timestamp >= layout.getMaxTimestamp()) {
+            return new Tsid(Long.MAX_VALUE);
+        }
+        return new Tsid(((timestamp + 1) << layout.getTimestampShift()) - 1);
+    }
+
+    private static void checkConfiguration(TsidConfiguration configuration) {
+        if (configuration == null) {
+            throw new NullPointerException(TsidErrorMessage.NULL_CONFIGURATION);
+        }
+    }
+
+    private static long ticksOf(Instant instant, TsidConfiguration configuration) {
+        if (instant == null) {
+            throw new NullPointerException("Instant is null");
+        }
+        return Math.floorDiv(instant.toEpochMilli() - configuration.getEpoch(),
+                configuration.getLayout().getTickMillis());
+    }
+
     /**
      * Returns the value of {@link Tsid} as {@code long}.
      *
@@ -71,12 +345,101 @@ public final class Tsid implements java.io.Serializable, Comparable<Tsid> {
     }
 
     /**
-     * Returns the value of {@link Tsid} as {@code String} in Crockford's Base32 encoding.
+     * Returns the value of {@link Tsid} as {@code String} in Crockford's Base32 encoding. The {@code String} is cached,
+     * so repeated calls do not encode the value again.
      *
      * @return {@code String} representation of the current {@link Tsid}, in Crockford's Base32 encoding.
      */
     public String asString() {
-        return CrockfordCodec.encode(value);
+        String result = encodedValue;
+        if (result == null) {
+            result = CrockfordCodec.encode(value);
+            encodedValue = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the creation time of {@link Tsid}, in milliseconds since the Unix epoch, truncated to the tick of the layout.
+     *
+     * @param configuration The {@link TsidConfiguration} the {@link Tsid} was generated with.
+     * @return Creation time of the current {@link Tsid}, in milliseconds since the Unix epoch.
+     */
+    public long timestamp(TsidConfiguration configuration) {
+        return timestampOf(value, configuration);
+    }
+
+    /**
+     * Gets the creation time of {@link Tsid}, truncated to the tick of the layout.
+     *
+     * @param configuration The {@link TsidConfiguration} the {@link Tsid} was generated with.
+     * @return Creation time of the current {@link Tsid}.
+     */
+    public Instant instant(TsidConfiguration configuration) {
+        return Instant.ofEpochMilli(timestampOf(value, configuration));
+    }
+
+    /**
+     * Gets the node of {@link Tsid}.
+     *
+     * @param configuration The {@link TsidConfiguration} the {@link Tsid} was generated with.
+     * @return Node of the current {@link Tsid}.
+     */
+    public int node(TsidConfiguration configuration) {
+        return nodeOf(value, configuration);
+    }
+
+    /**
+     * Gets the sequence of {@link Tsid}.
+     *
+     * @param configuration The {@link TsidConfiguration} the {@link Tsid} was generated with.
+     * @return Sequence of the current {@link Tsid}.
+     */
+    public int sequence(TsidConfiguration configuration) {
+        return sequenceOf(value, configuration);
+    }
+
+    /**
+     * Returns the binary form of {@link Tsid}.
+     *
+     * @return The {@value #BYTES} big-endian bytes of the current {@link Tsid}.
+     */
+    public byte[] toBytes() {
+        final byte[] result = new byte[BYTES];
+        toBytes(result, 0);
+        return result;
+    }
+
+    /**
+     * Writes the binary form of {@link Tsid} into {@code destination}, starting from {@code offset}.
+     *
+     * @param destination The array to write the {@value #BYTES} big-endian bytes into.
+     * @param offset      The index of the first byte.
+     */
+    public void toBytes(byte[] destination, int offset) {
+        if (destination == null) {
+            throw new NullPointerException("Destination is null");
+        }
+        if (offset < 0 || offset > destination.length - BYTES) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + BYTES
+                    + ") is out of bounds for length " + destination.length);
+        }
+        for (int i = BYTES - 1; i >= 0; i--) {
+            destination[offset + i] = (byte) (value >>> (8 * (BYTES - 1 - i)));
+        }
+    }
+
+    /**
+     * Writes the binary form of {@link Tsid} at the current position of {@code destination}, regardless of the byte
+     * order of {@code destination}. The position is then advanced by {@value #BYTES}.
+     *
+     * @param destination The buffer to write the {@value #BYTES} big-endian bytes into.
+     */
+    public void writeTo(ByteBuffer destination) {
+        if (destination == null) {
+            throw new NullPointerException("Destination is null");
+        }
+        destination.putLong(destination.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value));
     }
 
     @Override
@@ -104,4 +467,55 @@ public final class Tsid implements java.io.Serializable, Comparable<Tsid> {
         }
         return Long.compare(this.value, o.value);
     }
+
+    private Object writeReplace() {
+        return new SerializationProxy(value);
+    }
+
+    /**
+     * Reads the default form written by earlier releases, before the proxy.
+     */
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        if (value < 0) {
+            throw new InvalidObjectException("Value is below 0");
+        }
+    }
+
+    /**
+     * Serialized form of {@link Tsid}, which only writes its value as {@value #BYTES} bytes.
+     */
+    static final class SerializationProxy implements Externalizable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long value;
+
+        /**
+         * Required by {@link Externalizable}.
+         */
+        public SerializationProxy() {
+        }
+
+        SerializationProxy(long value) {
+            this.value = value;
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeLong(value);
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException {
+            value = in.readLong();
+            if (value < 0) {
+                throw new InvalidObjectException("Value is below 0");
+            }
+        }
+
+        private Object readResolve() {
+            return new Tsid(value);
+        }
+    }
 }
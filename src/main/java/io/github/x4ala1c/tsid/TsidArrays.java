@@ -0,0 +1,503 @@
+package io.github.x4ala1c.tsid;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Utilities for arrays of raw {@link Tsid} values.
+ * <p>
+ * Since {@link Tsid}s sort by their creation time, a sorted {@code long[]} of them can be searched for the IDs
+ * generated within a time window, between the bounds given by {@link Tsid#lowerBound(java.time.Instant)} and
+ * {@link Tsid#upperBound(java.time.Instant)}.
+ * <p>
+ * Arrays are sorted with a least-significant-digit radix sort, one byte at a time. IDs of a batch usually share their
+ * highest bytes, the ones of the timestamp, and the bytes that are the same in all the values are skipped, so a batch
+ * generated within a few seconds takes about 5 passes instead of 8. Arrays made of a few ascending runs, such as
+ * concatenated shards of several nodes, are merged instead, and arrays that are already sorted are only scanned.
+ */
+public final class TsidArrays {
+
+    private static final int RADIX = 256;
+    private static final int RADIX_THRESHOLD = 1 << 8;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int MIN_CHUNK_LENGTH = 1 << 13;
+    private static final int MAX_MERGED_RUNS = 32;
+
+    private TsidArrays() {
+    }
+
+    /**
+     * Gets the index of the first value of the sorted {@code values} that is not less than {@code value}.
+     *
+     * @param values The values to search, sorted in ascending order.
+     * @param value  The value to search for.
+     * @return The index of the first value not less than {@code value}, or {@code values.length} if there is none.
+     *
+     * @throws NullPointerException If the {@code values} is null.
+     */
+    public static int lowerBound(long[] values, long value) {
+        if (values == null) {
+            throw new NullPointerException("Values is null");
+        }
+        return lowerBound(values, 0, values.length, value);
+    }
+
+    /**
+     * Gets the index of the first value of the sorted range {@code [fromIndex, toIndex)} of {@code values} that is not
+     * less than {@code value}.
+     *
+     * @param values    The values to search, sorted in ascending order within the range.
+     * @param fromIndex The index of the first value of the range, inclusive.
+     * @param toIndex   The index of the last value of the range, exclusive.
+     * @param value     The value to search for.
+     * @return The index of the first value not less than {@code value}, or {@code toIndex} if there is none.
+     *
+     * @throws NullPointerException      If the {@code values} is null.
+     * @throws IndexOutOfBoundsException If the range is out of bounds of {@code values}.
+     */
+    public static int lowerBound(long[] values, int fromIndex, int toIndex, long value) {
+        checkRange(values, fromIndex, toIndex);
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the index of the first value of the sorted {@code values} that is greater than {@code value}.
+     *
+     * @param values The values to search, sorted in ascending order.
+     * @param value  The value to search for.
+     * @return The index of the first value greater than {@code value}, or {@code values.length} if there is none.
+     *
+     * @throws NullPointerException If the {@code values} is null.
+     */
+    public static int upperBound(long[] values, long value) {
+        if (values == null) {
+            throw new NullPointerException("Values is null");
+        }
+        return upperBound(values, 0, values.length, value);
+    }
+
+    /**
+     * Gets the index of the first value of the sorted range {@code [fromIndex, toIndex)} of {@code values} that is
+     * greater than {@code value}.
+     *
+     * @param values    The values to search, sorted in ascending order within the range.
+     * @param fromIndex The index of the first value of the range, inclusive.
+     * @param toIndex   The index of the last value of the range, exclusive.
+     * @param value     The value to search for.
+     * @return The index of the first value greater than {@code value}, or {@code toIndex} if there is none.
+     *
+     * @throws NullPointerException      If the {@code values} is null.
+     * @throws IndexOutOfBoundsException If the range is out of bounds of {@code values}.
+     */
+    public static int upperBound(long[] values, int fromIndex, int toIndex, long value) {
+        checkRange(values, fromIndex, toIndex);
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (values[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sorts {@code values} in ascending order, the same order as {@link Tsid#compareTo(Tsid)}.
+     *
+     * @param values The values to sort.
+     *
+     * @throws NullPointerException If the {@code values} is null.
+     */
+    public static void sort(long[] values) {
+        if (values == null) {
+            throw new NullPointerException("Values is null");
+        }
+        radixSort(values, null, 0, values.length, false);
+    }
+
+    /**
+     * Sorts the range {@code [fromIndex, toIndex)} of {@code values} in ascending order, the same order as
+     * {@link Tsid#compareTo(Tsid)}.
+     *
+     * @param values    The values to sort.
+     * @param fromIndex The index of the first value of the range, inclusive.
+     * @param toIndex   The index of the last value of the range, exclusive.
+     *
+     * @throws NullPointerException      If the {@code values} is null.
+     * @throws IndexOutOfBoundsException If the range is out of bounds of {@code values}.
+     */
+    public static void sort(long[] values, int fromIndex, int toIndex) {
+        checkRange(values, fromIndex, toIndex);
+        radixSort(values, null, fromIndex, toIndex, false);
+    }
+
+    /**
+     * Sorts {@code values} in ascending order like {@code sort(long[])}, splitting the work of each pass between the
+     * threads of the common {@link ForkJoinPool}. Small arrays are sorted sequentially.
+     *
+     * @param values The values to sort.
+     *
+     * @throws NullPointerException If the {@code values} is null.
+     */
+    public static void parallelSort(long[] values) {
+        if (values == null) {
+            throw new NullPointerException("Values is null");
+        }
+        radixSort(values, null, 0, values.length, true);
+    }
+
+    /**
+     * Sorts the range {@code [fromIndex, toIndex)} of {@code values} in ascending order like
+     * {@code sort(long[], int, int)}, splitting the work of each pass between the threads of the common
+     * {@link ForkJoinPool}. Small ranges are sorted sequentially.
+     *
+     * @param values    The values to sort.
+     * @param fromIndex The index of the first value of the range, inclusive.
+     * @param toIndex   The index of the last value of the range, exclusive.
+     *
+     * @throws NullPointerException      If the {@code values} is null.
+     * @throws IndexOutOfBoundsException If the range is out of bounds of {@code values}.
+     */
+    public static void parallelSort(long[] values, int fromIndex, int toIndex) {
+        checkRange(values, fromIndex, toIndex);
+        radixSort(values, null, fromIndex, toIndex, true);
+    }
+
+    /**
+     * Sorts {@code tsids} in ascending order. The values are read once into an array of keys, which is radix sorted
+     * along with the original positions, so {@link Tsid#compareTo(Tsid)} is not called on large unsorted arrays. Arrays
+     * made of a few ascending runs are merged in place with {@link Arrays#sort(Object[])} instead. The sort is stable.
+     *
+     * @param tsids The {@link Tsid}s to sort.
+     *
+     * @throws NullPointerException If the {@code tsids} or any of its elements is null.
+     */
+    public static void sort(Tsid[] tsids) {
+        if (tsids == null) {
+            throw new NullPointerException("Tsids is null");
+        }
+        sortTsids(tsids, 0, tsids.length, false);
+    }
+
+    /**
+     * Sorts {@code tsids} in ascending order like {@code sort(Tsid[])}, splitting the work of each pass between the
+     * threads of the common {@link ForkJoinPool}.
+     *
+     * @param tsids The {@link Tsid}s to sort.
+     *
+     * @throws NullPointerException If the {@code tsids} or any of its elements is null.
+     */
+    public static void parallelSort(Tsid[] tsids) {
+        if (tsids == null) {
+            throw new NullPointerException("Tsids is null");
+        }
+        sortTsids(tsids, 0, tsids.length, true);
+    }
+
+    private static void checkRange(long[] values, int fromIndex, int toIndex) {
+        if (values == null) {
+            throw new NullPointerException("Values is null");
+        }
+        if (fromIndex < 0 || toIndex > values.length || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex
+                    + ") is out of bounds for length " + values.length);
+        }
+    }
+
+    private static void sortTsids(Tsid[] tsids, int fromIndex, int toIndex, boolean parallel) {
+        final int length = toIndex - fromIndex;
+        if (length < RADIX_THRESHOLD || hasFewRuns(tsids, fromIndex, toIndex)) {
+            // Merges the runs of the original array, without copying the keys out and back.
+            Arrays.sort(tsids, fromIndex, toIndex);
+            return;
+        }
+        final long[] keys = new long[length];
+        final int[] positions = new int[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = tsids[fromIndex + i].asLong();
+            positions[i] = fromIndex + i;
+        }
+        if (!radixSort(keys, positions, 0, length, parallel)) {
+            return;
+        }
+        final Tsid[] sorted = new Tsid[length];
+        for (int i = 0; i < length; i++) {
+            sorted[i] = tsids[positions[i]];
+        }
+        System.arraycopy(sorted, 0, tsids, fromIndex, length);
+    }
+
+    /**
+     * Sorts the range of {@code keys}, moving the {@code positions} along with them if not null. Returns false if the
+     * range was already sorted, and left untouched.
+     */
+    private static boolean radixSort(long[] keys, int[] positions, int fromIndex, int toIndex, boolean parallel) {
+        final int length = toIndex - fromIndex;
+        final int chunks = parallel ? chunks(length) : 1;
+        final int[] runStarts = new int[MAX_MERGED_RUNS + 1];
+        final int runs = findRuns(keys, fromIndex, toIndex, runStarts);
+        if (runs == 1) {
+            return false;
+        }
+        if (positions == null && length < RADIX_THRESHOLD) {
+            Arrays.sort(keys, fromIndex, toIndex);
+            return true;
+        }
+        if (runs > 0) {
+            mergeRuns(keys, positions, fromIndex, length, runStarts, runs, chunks > 1);
+            return true;
+        }
+
+        // Counts of each byte of each chunk, in a single pass over the keys.
+        final int[][] counts = new int[chunks][Long.BYTES * RADIX];
+        forEach(chunks, chunks > 1, chunk -> {
+            final int[] chunkCounts = counts[chunk];
+            for (int i = chunkStart(fromIndex, length, chunks, chunk),
+                 end = chunkStart(fromIndex, length, chunks, chunk + 1); i < end; i++) {
+                final long key = keys[i] ^ Long.MIN_VALUE;
+                for (int b = 0; b < Long.BYTES; b++) {
+                    chunkCounts[b * RADIX + ((int) (key >>> (b << 3)) & 0xFF)]++;
+                }
+            }
+        });
+
+        long[] sourceKeys = keys;
+        long[] targetKeys = new long[length];
+        int[] sourcePositions = positions;
+        int[] targetPositions = positions == null ? null : new int[length];
+        int sourceFrom = fromIndex;
+        int targetFrom = 0;
+        boolean countsValid = true;
+        for (int b = 0; b < Long.BYTES; b++) {
+            final int shift = b << 3;
+            final int base = b * RADIX;
+            if (isConstant(counts, base, length, digit(keys[fromIndex], shift))) {
+                continue;
+            }
+            // Chunk counts depend on the order left by the previous pass, unlike the counts of the whole range.
+            if (!countsValid) {
+                countDigits(counts, sourceKeys, sourceFrom, length, chunks, shift, base);
+            }
+            countsValid = chunks == 1;
+            final int[][] offsets = new int[chunks][RADIX];
+            int offset = targetFrom;
+            for (int digit = 0; digit < RADIX; digit++) {
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    offsets[chunk][digit] = offset;
+                    offset += counts[chunk][base + digit];
+                }
+            }
+            scatter(sourceKeys, sourcePositions, sourceFrom, targetKeys, targetPositions, length, chunks, shift,
+                    offsets);
+
+            final long[] swapKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swapKeys;
+            final int[] swapPositions = sourcePositions;
+            sourcePositions = targetPositions;
+            targetPositions = swapPositions;
+            final int swapFrom = sourceFrom;
+            sourceFrom = targetFrom;
+            targetFrom = swapFrom;
+        }
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, fromIndex, length);
+            if (positions != null) {
+                System.arraycopy(sourcePositions, 0, positions, fromIndex, length);
+            }
+        }
+        return true;
+    }
+
+    private static void countDigits(int[][] counts, long[] keys, int fromIndex, int length, int chunks, int shift,
+                                    int base) {
+        forEach(chunks, chunks > 1, chunk -> {
+            final int[] chunkCounts = counts[chunk];
+            Arrays.fill(chunkCounts, base, base + RADIX, 0);
+            for (int i = chunkStart(fromIndex, length, chunks, chunk),
+                 end = chunkStart(fromIndex, length, chunks, chunk + 1); i < end; i++) {
+                chunkCounts[base + digit(keys[i], shift)]++;
+            }
+        });
+    }
+
+    private static void scatter(long[] sourceKeys, int[] sourcePositions, int sourceFrom, long[] targetKeys,
+                                int[] targetPositions, int length, int chunks, int shift, int[][] offsets) {
+        forEach(chunks, chunks > 1, chunk -> {
+            final int[] chunkOffsets = offsets[chunk];
+            final int end = chunkStart(sourceFrom, length, chunks, chunk + 1);
+            if (sourcePositions == null) {
+                for (int i = chunkStart(sourceFrom, length, chunks, chunk); i < end; i++) {
+                    final long key = sourceKeys[i];
+                    targetKeys[chunkOffsets[digit(key, shift)]++] = key;
+                }
+            } else {
+                for (int i = chunkStart(sourceFrom, length, chunks, chunk); i < end; i++) {
+                    final long key = sourceKeys[i];
+                    final int target = chunkOffsets[digit(key, shift)]++;
+                    targetKeys[target] = key;
+                    targetPositions[target] = sourcePositions[i];
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the byte of {@code key} at {@code shift}, with the sign bit flipped so that unsigned bytes sort like signed
+     * values.
+     */
+    private static int digit(long key, int shift) {
+        return (int) ((key ^ Long.MIN_VALUE) >>> shift) & 0xFF;
+    }
+
+    private static boolean isConstant(int[][] counts, int base, int length, int digit) {
+        int count = 0;
+        for (int[] chunkCounts : counts) {
+            count += chunkCounts[base + digit];
+        }
+        return count == length;
+    }
+
+    /**
+     * Stores the starts of the ascending runs of the range into {@code runStarts}, followed by {@code toIndex}, and
+     * returns the number of runs, or -1 if there are more than {@code runStarts} can hold.
+     */
+    private static int findRuns(long[] keys, int fromIndex, int toIndex, int[] runStarts) {
+        int runs = 0;
+        runStarts[runs++] = fromIndex;
+        for (int i = fromIndex + 1; i < toIndex; i++) {
+            if (keys[i - 1] > keys[i]) {
+                if (runs == runStarts.length - 1) {
+                    return -1;
+                }
+                runStarts[runs++] = i;
+            }
+        }
+        runStarts[runs] = toIndex;
+        return runs;
+    }
+
+    private static boolean hasFewRuns(Tsid[] tsids, int fromIndex, int toIndex) {
+        int runs = 1;
+        long previous = tsids[fromIndex].asLong();
+        for (int i = fromIndex + 1; i < toIndex; i++) {
+            final long current = tsids[i].asLong();
+            if (previous > current && ++runs > MAX_MERGED_RUNS) {
+                return false;
+            }
+            previous = current;
+        }
+        return true;
+    }
+
+    /**
+     * Merges adjacent pairs of runs until a single one is left, taking from the left run on ties so that the sort stays
+     * stable.
+     */
+    private static void mergeRuns(long[] keys, int[] positions, int fromIndex, int length, int[] runStarts, int runs,
+                                  boolean parallel) {
+        int[] bounds = new int[runs + 1];
+        for (int run = 0; run <= runs; run++) {
+            bounds[run] = runStarts[run] - fromIndex;
+        }
+        long[] sourceKeys = keys;
+        long[] targetKeys = new long[length];
+        int[] sourcePositions = positions;
+        int[] targetPositions = positions == null ? null : new int[length];
+        int sourceFrom = fromIndex;
+        int targetFrom = 0;
+        int remaining = runs;
+        while (remaining > 1) {
+            final int pairs = (remaining + 1) / 2;
+            final int[] pairBounds = bounds;
+            final int lastBound = remaining;
+            final long[] fromKeys = sourceKeys;
+            final long[] toKeys = targetKeys;
+            final int[] fromPositions = sourcePositions;
+            final int[] toPositions = targetPositions;
+            final int fromOffset = sourceFrom;
+            final int toOffset = targetFrom;
+            forEach(pairs, parallel, pair -> merge(fromKeys, fromPositions, fromOffset, toKeys, toPositions, toOffset,
+                    pairBounds[2 * pair], pairBounds[Math.min(2 * pair + 1, lastBound)],
+                    pairBounds[Math.min(2 * pair + 2, lastBound)]));
+            final int[] nextBounds = new int[pairs + 1];
+            for (int pair = 0; pair < pairs; pair++) {
+                nextBounds[pair] = bounds[2 * pair];
+            }
+            nextBounds[pairs] = bounds[remaining];
+            bounds = nextBounds;
+            remaining = pairs;
+
+            sourceKeys = toKeys;
+            targetKeys = fromKeys;
+            sourcePositions = toPositions;
+            targetPositions = fromPositions;
+            sourceFrom = toOffset;
+            targetFrom = fromOffset;
+        }
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, fromIndex, length);
+            if (positions != null) {
+                System.arraycopy(sourcePositions, 0, positions, fromIndex, length);
+            }
+        }
+    }
+
+    private static void merge(long[] sourceKeys, int[] sourcePositions, int sourceFrom, long[] targetKeys,
+                              int[] targetPositions, int targetFrom, int start, int middle, int end) {
+        int left = start;
+        int right = middle;
+        int target = start;
+        while (left < middle && right < end) {
+            final int source = sourceKeys[sourceFrom + right] < sourceKeys[sourceFrom + left] ? right++ : left++;
+            targetKeys[targetFrom + target] = sourceKeys[sourceFrom + source];
+            if (sourcePositions != null) {
+                targetPositions[targetFrom + target] = sourcePositions[sourceFrom + source];
+            }
+            target++;
+        }
+        final int rest = left < middle ? left : right;
+        final int restLength = end - target;
+        System.arraycopy(sourceKeys, sourceFrom + rest, targetKeys, targetFrom + target, restLength);
+        if (sourcePositions != null) {
+            System.arraycopy(sourcePositions, sourceFrom + rest, targetPositions, targetFrom + target, restLength);
+        }
+    }
+
+    private static int chunks(int length) {
+        final int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (length < PARALLEL_THRESHOLD || parallelism <= 1) {
+            return 1;
+        }
+        return Math.min(parallelism * 4, length / MIN_CHUNK_LENGTH);
+    }
+
+    private static int chunkStart(int fromIndex, int length, int chunks, int chunk) {
+        return fromIndex + (int) ((long) length * chunk / chunks);
+    }
+
+    private static void forEach(int count, boolean parallel, IntConsumer action) {
+        if (parallel && count > 1) {
+            IntStream.range(0, count).parallel().forEach(action);
+        } else {
+            for (int i = 0; i < count; i++) {
+                action.accept(i);
+            }
+        }
+    }
+}
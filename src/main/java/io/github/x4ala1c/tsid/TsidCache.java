@@ -0,0 +1,250 @@
+package io.github.x4ala1c.tsid;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of parsed {@link Tsid}, for callers that parse the same hot IDs over and over with
+ * {@link Tsid#fromString(String)}.
+ * <p>
+ * The cache is set-associative: each {@code String} maps by its hash to one set of a few entries, which is the only
+ * place it is looked up and stored. Lookups do not lock or write shared state, besides setting the reference bit of the
+ * hit entry. On a miss, the entry to replace is chosen within the set by the CLOCK policy: the hand clears reference
+ * bits until it meets an entry that was not used since its last pass. Replacement is best effort, a racing insertion
+ * wins and the other one is dropped.
+ * <p>
+ * Entries are immutable pairs of a {@code String} and its {@link Tsid}, published atomically, so a lookup racing with
+ * an eviction either misses or sees a complete pair, and never returns the {@link Tsid} of another {@code String}.
+ * Invalid input is never cached.
+ * <p>
+ * When disabled, the cache passes every call straight to {@link Tsid#fromString(String)} and counts nothing.
+ */
+public final class TsidCache {
+
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final int ways;
+    private final int setMask;
+    private final int[] hands;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile boolean enabled;
+
+    private TsidCache(Builder builder) {
+        this.entries = new AtomicReferenceArray<>(builder.capacity);
+        this.ways = builder.ways;
+        this.setMask = builder.capacity / builder.ways - 1;
+        this.hands = new int[builder.capacity / builder.ways];
+        this.enabled = builder.enabled;
+    }
+
+    /**
+     * Simple Builder pattern for {@link TsidCache}.
+     */
+    public static final class Builder {
+
+        private static final int DEFAULT_CAPACITY = 4096;
+        private static final int DEFAULT_WAYS = 8;
+
+        private int capacity = DEFAULT_CAPACITY;
+        private int ways = DEFAULT_WAYS;
+        private boolean enabled = true;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of cached IDs, rounded up to the next power of 2. Default is 4096.
+         */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Sets the number of entries per set, rounded up to the next power of 2. Default is 8.
+         */
+        public Builder ways(int ways) {
+            this.ways = ways;
+            return this;
+        }
+
+        /**
+         * Sets whether the cache starts enabled. Default is {@code true}.
+         */
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Builds the {@link TsidCache}.
+         *
+         * @return new instance of {@link TsidCache}.
+         *
+         * @throws IllegalArgumentException If any of the values is out of its acceptable range.
+         */
+        public TsidCache build() {
+            if (capacity <= 0 || capacity > (1 << 30)) {
+                throw new IllegalArgumentException("Capacity must be between 1 and " + (1 << 30));
+            }
+            final int roundedCapacity = ceilingPowerOfTwo(capacity);
+            if (ways <= 0 || ways > roundedCapacity) {
+                throw new IllegalArgumentException("Ways must be between 1 and " + roundedCapacity);
+            }
+            final Builder roundedBuilder = new Builder()
+                    .capacity(roundedCapacity)
+                    .ways(ceilingPowerOfTwo(ways))
+                    .enabled(enabled);
+            return new TsidCache(roundedBuilder);
+        }
+
+        private static int ceilingPowerOfTwo(int value) {
+            final int highestOneBit = Integer.highestOneBit(value);
+            return highestOneBit == value ? value : highestOneBit << 1;
+        }
+    }
+
+    /**
+     * Gets a new {@link Builder} for {@link TsidCache}.
+     *
+     * @return new instance of {@link Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the cached {@link Tsid} of {@code value}, or parses it with {@link Tsid#fromString(String)} and caches it.
+     *
+     * @param value The value of {@link Tsid} in Crockford's Base32 encoding.
+     * @return {@link Tsid} instance.
+     *
+     * @throws NullPointerException     If the {@code value} is null.
+     * @throws IllegalArgumentException If the {@code value} is not a valid {@link Tsid}.
+     */
+    public Tsid fromString(String value) {
+        if (value == null) {
+            throw new NullPointerException("Value is null");
+        }
+        if (!enabled) {
+            return Tsid.fromString(value);
+        }
+        final int hash = value.hashCode();
+        final int set = setOf(hash);
+        final int base = set * ways;
+        for (int i = 0; i < ways; i++) {
+            final Entry entry = entries.get(base + i);
+            if (entry != null && entry.hash == hash && entry.key.equals(value)) {
+                if (!entry.referenced) {
+                    entry.referenced = true;
+                }
+                hits.increment();
+                return entry.tsid;
+            }
+        }
+        misses.increment();
+        final Tsid result = Tsid.fromString(value);
+        insert(set, new Entry(hash, value, result));
+        return result;
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache since it was created.
+     *
+     * @return Number of hits.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to parse the value since it was created, including invalid ones.
+     *
+     * @return Number of misses.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the maximum number of cached IDs.
+     *
+     * @return Capacity of the cache.
+     */
+    public int capacity() {
+        return entries.length();
+    }
+
+    /**
+     * Gets whether lookups go through the cache.
+     *
+     * @return {@code true} if the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the cache on or off. Cached entries are kept while the cache is off, since they never become wrong.
+     *
+     * @param enabled Whether lookups go through the cache.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Removes all cached IDs. The counters are not reset.
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+
+    private int setOf(int hash) {
+        final int mixed = hash * GOLDEN_RATIO;
+        return (mixed ^ (mixed >>> 16)) & setMask;
+    }
+
+    /**
+     * Stores {@code entry} in {@code set}, in the first empty or unreferenced way from the hand of the set. The hand
+     * is read and moved without synchronization, which may only make the choice of victim less accurate.
+     */
+    private void insert(int set, Entry entry) {
+        final int base = set * ways;
+        final int hand = hands[set];
+        for (int i = 0; i < 2 * ways; i++) {
+            final int way = (hand + i) & (ways - 1);
+            final Entry current = entries.get(base + way);
+            if (current == null || !current.referenced) {
+                if (entries.compareAndSet(base + way, current, entry)) {
+                    hands[set] = (way + 1) & (ways - 1);
+                }
+                return;
+            }
+            current.referenced = false;
+        }
+    }
+
+    private static final class Entry {
+
+        private final int hash;
+        private final String key;
+        private final Tsid tsid;
+
+        /**
+         * The CLOCK reference bit. Races on it only affect which entry is evicted.
+         */
+        private boolean referenced;
+
+        private Entry(int hash, String key, Tsid tsid) {
+            this.hash = hash;
+            this.key = key;
+            this.tsid = tsid;
+        }
+    }
+}
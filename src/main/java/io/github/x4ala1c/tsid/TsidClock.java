@@ -0,0 +1,56 @@
+package io.github.x4ala1c.tsid;
+
+/**
+ * Source of the current time for {@link TsidGenerator}.
+ * <p>
+ * The library provides 3 built-in clocks:
+ * <ul>
+ * <li> {@link #systemClock()}: Reads {@link System#currentTimeMillis()} on every call. This is the default clock.
+ * <li> {@link #cachedClock()}: Reads a value refreshed every millisecond by a background daemon thread, costing only
+ *      one volatile read per call.
+ * <li> {@link #monotonicClock()}: Anchored to the wall-clock time once, then advanced by {@link System#nanoTime()},
+ *      so it never goes backwards when the wall clock is adjusted.
+ * </ul>
+ * <p>
+ * Users can also implement their own clock, for example to drive a deterministic time in tests. Implementations must
+ * be thread-safe.
+ */
+@FunctionalInterface
+public interface TsidClock {
+
+    /**
+     * Gets the current time.
+     *
+     * @return The current time, in milliseconds since Unix epoch.
+     */
+    long millis();
+
+    /**
+     * Gets the {@link TsidClock} backed by {@link System#currentTimeMillis()}.
+     *
+     * @return System {@link TsidClock}.
+     */
+    static TsidClock systemClock() {
+        return SystemTsidClock.INSTANCE;
+    }
+
+    /**
+     * Gets the shared {@link TsidClock} whose time is refreshed every millisecond by a background daemon thread. The
+     * thread is started on the first call.
+     *
+     * @return Cached {@link TsidClock}.
+     */
+    static TsidClock cachedClock() {
+        return CachedTsidClock.instance();
+    }
+
+    /**
+     * Gets the shared {@link TsidClock} that is anchored to the wall-clock time on the first call, then advanced by
+     * {@link System#nanoTime()}. Adjustments of the wall clock afterward are ignored.
+     *
+     * @return Monotonic {@link TsidClock}.
+     */
+    static TsidClock monotonicClock() {
+        return MonotonicTsidClock.instance();
+    }
+}
@@ -1,19 +1,34 @@
 package io.github.x4ala1c.tsid;
 
 import java.math.BigInteger;
+import java.nio.file.Paths;
 import java.time.Instant;
 
 /**
  * Contains configuration information for {@link TsidGenerator} to work with.
  * <p>
- * Currently, the configuration has 2 parameters:
+ * Currently, the configuration has 9 parameters:
  * <ul>
  * <li> {@code node}: Represents the current node's or machine's ID (when in multi-node system). This is to
  *      ensure that each node will have its generator be uniquely defined when compare to other nodes, reducing the
  *      chance of collision. By default, it is set to the current thread's ID that this {@link TsidConfiguration} is
- *      running in. Acceptable range is [0, 1023].
+ *      running in. Acceptable range is [0, 1023] with the default {@code layout}.
  * <li> {@code epoch}: Represents the epoch to calculate the timestamp with. By default, {@link TsidConfiguration}
  *      uses Unix epoch. Acceptable range is [0, 4095].
+ * <li> {@code clock}: Represents the {@link TsidClock} to read the current time from. By default,
+ *      {@link TsidConfiguration} uses {@link TsidClock#systemClock()}.
+ * <li> {@code sequenceSeed}: Represents the {@link TsidSequenceSeed} to start the sequence of each millisecond with.
+ *      By default, {@link TsidConfiguration} uses {@link TsidSequenceSeed#SECURE_RANDOM}.
+ * <li> {@code overflowPolicy}: Represents the {@link TsidDriftPolicy} applied when the sequence of the current
+ *      millisecond is exhausted. By default, {@link TsidConfiguration} uses {@link TsidDriftPolicy#borrow()}.
+ * <li> {@code clockRegressionPolicy}: Represents the {@link TsidDriftPolicy} applied when the clock goes backwards.
+ *      By default, {@link TsidConfiguration} uses {@link TsidDriftPolicy#borrow()}.
+ * <li> {@code layout}: Represents the {@link TsidLayout}, splitting the bits of {@link Tsid} between the timestamp,
+ *      the node and the sequence. By default, {@link TsidConfiguration} uses {@link TsidLayout#defaultLayout()}.
+ * <li> {@code highWaterMark}: Represents the {@link TsidHighWaterMark} persisting the issued timestamps across
+ *      restarts. By default, {@link TsidConfiguration} has none, and is optional.
+ * <li> {@code metrics}: Represents whether {@link TsidGenerator}s record {@link TsidMetrics}. By default, it is
+ *      disabled, and generators do not pay any cost for them.
  * </ul>
  * <p>
  * Note that the acceptable ranges are calculated from the integer standpoint. Refer to {@link Tsid} to check the
@@ -27,11 +42,22 @@ import java.time.Instant;
  *          <li> {@code TSID_NODE} for the environment.
  *          <li> {@code tsid.node} for the system.
  *      </ul>
+ * <li> {@code node}, claimed with {@link TsidNodeAllocator} from a directory shared by the processes of the host, when
+ *      the {@code node} itself is not set:
+ *      <ul>
+ *          <li> {@code TSID_NODE_DIRECTORY} for the environment.
+ *          <li> {@code tsid.node.directory} for the system.
+ *      </ul>
  * <li> {@code epoch}:
  *      <ul>
  *          <li> {@code TSID_EPOCH} for the environment.
  *          <li> {@code tsid.epoch} for the system.
  *      </ul>
+ * <li> {@code metrics}:
+ *      <ul>
+ *          <li> {@code TSID_METRICS} for the environment.
+ *          <li> {@code tsid.metrics} for the system.
+ *      </ul>
  * </ul>
  * <p>
  * Users can also customize the {@link TsidConfiguration} on code-level using the provided {@link Builder}.
@@ -48,16 +74,48 @@ public final class TsidConfiguration {
 
     private final int node;
     private final long epoch;
+    private final TsidClock clock;
+    private final TsidSequenceSeed sequenceSeed;
+    private final TsidDriftPolicy overflowPolicy;
+    private final TsidDriftPolicy clockRegressionPolicy;
+    private final TsidLayout layout;
+    private final TsidHighWaterMark highWaterMark;
+    private final boolean metrics;
 
     TsidConfiguration(int node, long epoch) {
-        if (node < 0 || node > MAX_NODE) {
-            throw new IllegalArgumentException("Node value must be between 0 and " + MAX_NODE);
+        this(builder()
+                .node(node)
+                .epoch(epoch));
+    }
+
+    private TsidConfiguration(Builder builder) {
+        if (builder.layout == null) {
+            throw new NullPointerException(TsidErrorMessage.NULL_LAYOUT);
+        }
+        if (builder.node < 0 || builder.node > builder.layout.getMaxNode()) {
+            throw new IllegalArgumentException("Node value must be between 0 and " + builder.layout.getMaxNode());
         }
-        if (epoch < 0 || epoch > MAX_EPOCH) {
+        if (builder.epoch < 0 || builder.epoch > MAX_EPOCH) {
             throw new IllegalArgumentException("Epoch value must be between 0 and " + MAX_EPOCH);
         }
-        this.node = node;
-        this.epoch = epoch;
+        if (builder.clock == null) {
+            throw new NullPointerException(TsidErrorMessage.NULL_CLOCK);
+        }
+        if (builder.sequenceSeed == null) {
+            throw new NullPointerException(TsidErrorMessage.NULL_SEQUENCE_SEED);
+        }
+        if (builder.overflowPolicy == null || builder.clockRegressionPolicy == null) {
+            throw new NullPointerException(TsidErrorMessage.NULL_DRIFT_POLICY);
+        }
+        this.node = builder.node;
+        this.epoch = builder.epoch;
+        this.clock = builder.clock;
+        this.sequenceSeed = builder.sequenceSeed;
+        this.overflowPolicy = builder.overflowPolicy;
+        this.clockRegressionPolicy = builder.clockRegressionPolicy;
+        this.layout = builder.layout;
+        this.highWaterMark = builder.highWaterMark;
+        this.metrics = builder.metrics;
     }
 
     /**
@@ -74,7 +132,33 @@ public final class TsidConfiguration {
         int node = (short) (Thread.currentThread().getId() % (MAX_NODE + 1));
         if (nodeFromEnv != null) {
             node = Integer.parseInt(nodeFromEnv);
+        } else {
+            String nodeDirectoryFromEnv = System.getProperty("tsid.node.directory");
+            if (nodeDirectoryFromEnv == null) {
+                nodeDirectoryFromEnv = System.getenv("TSID_NODE_DIRECTORY");
+            }
+            if (nodeDirectoryFromEnv != null) {
+                node = TsidNodeAllocator.environmentNode(Paths.get(nodeDirectoryFromEnv));
+            }
         }
+        String metricsFromEnv = System.getProperty("tsid.metrics");
+        if (metricsFromEnv == null) {
+            metricsFromEnv = System.getenv("TSID_METRICS");
+        }
+        return builder()
+                .node(node)
+                .epoch(epochFromEnvironment())
+                .metrics(Boolean.parseBoolean(metricsFromEnv))
+                .build();
+    }
+
+    /**
+     * Gets the {@code epoch} from the environment, or the Unix epoch if the environment does not have it. Unlike
+     * {@code fromEnvironment()}, no node is read or claimed.
+     *
+     * @return Default {@code epoch} value.
+     */
+    static long epochFromEnvironment() {
         String epochFromEnv = System.getProperty("tsid.epoch");
         if (epochFromEnv == null) {
             epochFromEnv = System.getenv("TSID_EPOCH");
@@ -83,7 +167,7 @@ public final class TsidConfiguration {
         if (epochFromEnv != null) {
             epoch = Long.parseLong(epochFromEnv);
         }
-        return new TsidConfiguration(node, epoch);
+        return epoch;
     }
 
     /**
@@ -93,6 +177,13 @@ public final class TsidConfiguration {
 
         private int node;
         private long epoch;
+        private TsidClock clock = TsidClock.systemClock();
+        private TsidSequenceSeed sequenceSeed = TsidSequenceSeed.SECURE_RANDOM;
+        private TsidDriftPolicy overflowPolicy = TsidDriftPolicy.borrow();
+        private TsidDriftPolicy clockRegressionPolicy = TsidDriftPolicy.borrow();
+        private TsidLayout layout = TsidLayout.defaultLayout();
+        private TsidHighWaterMark highWaterMark;
+        private boolean metrics;
 
         private Builder() {
         }
@@ -107,8 +198,43 @@ public final class TsidConfiguration {
             return this;
         }
 
+        public Builder clock(TsidClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public Builder sequenceSeed(TsidSequenceSeed sequenceSeed) {
+            this.sequenceSeed = sequenceSeed;
+            return this;
+        }
+
+        public Builder overflowPolicy(TsidDriftPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        public Builder clockRegressionPolicy(TsidDriftPolicy clockRegressionPolicy) {
+            this.clockRegressionPolicy = clockRegressionPolicy;
+            return this;
+        }
+
+        public Builder layout(TsidLayout layout) {
+            this.layout = layout;
+            return this;
+        }
+
+        public Builder highWaterMark(TsidHighWaterMark highWaterMark) {
+            this.highWaterMark = highWaterMark;
+            return this;
+        }
+
+        public Builder metrics(boolean metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
         public TsidConfiguration build() {
-            return new TsidConfiguration(node, epoch);
+            return new TsidConfiguration(this);
         }
     }
 
@@ -121,6 +247,24 @@ public final class TsidConfiguration {
         return new Builder();
     }
 
+    /**
+     * Gets a new {@link Builder} pre-filled with the values of the current {@link TsidConfiguration}.
+     *
+     * @return new instance of {@link Builder}.
+     */
+    Builder toBuilder() {
+        return new Builder()
+                .node(node)
+                .epoch(epoch)
+                .clock(clock)
+                .sequenceSeed(sequenceSeed)
+                .overflowPolicy(overflowPolicy)
+                .clockRegressionPolicy(clockRegressionPolicy)
+                .layout(layout)
+                .highWaterMark(highWaterMark)
+                .metrics(metrics);
+    }
+
     /**
      * Gets the {@code node} value.
      *
@@ -138,4 +282,67 @@ public final class TsidConfiguration {
     long getEpoch() {
         return epoch;
     }
+
+    /**
+     * Gets the {@code clock} value.
+     *
+     * @return {@code clock} value.
+     */
+    TsidClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Gets the {@code sequenceSeed} value.
+     *
+     * @return {@code sequenceSeed} value.
+     */
+    TsidSequenceSeed getSequenceSeed() {
+        return sequenceSeed;
+    }
+
+    /**
+     * Gets the {@code overflowPolicy} value.
+     *
+     * @return {@code overflowPolicy} value.
+     */
+    TsidDriftPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Gets the {@code clockRegressionPolicy} value.
+     *
+     * @return {@code clockRegressionPolicy} value.
+     */
+    TsidDriftPolicy getClockRegressionPolicy() {
+        return clockRegressionPolicy;
+    }
+
+    /**
+     * Gets the {@code layout} value.
+     *
+     * @return {@code layout} value.
+     */
+    TsidLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Gets the {@code highWaterMark} value.
+     *
+     * @return {@code highWaterMark} value, or null if there is none.
+     */
+    TsidHighWaterMark getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Gets the {@code metrics} value.
+     *
+     * @return {@code metrics} value.
+     */
+    boolean isMetrics() {
+        return metrics;
+    }
 }
@@ -0,0 +1,100 @@
+package io.github.x4ala1c.tsid;
+
+/**
+ * Policy of {@link TsidGenerator} for issuing IDs whose timestamp would be ahead of the clock.
+ * <p>
+ * This happens in 2 cases, each configured with its own policy in {@link TsidConfiguration}:
+ * <ul>
+ * <li> Sequence overflow: all sequence numbers of the current millisecond are used, so the next IDs have to borrow
+ *      the following milliseconds.
+ * <li> Clock regression: the clock goes backwards, so the next IDs have to keep the timestamp last seen to stay
+ *      monotonic.
+ * </ul>
+ * <p>
+ * The distance between the timestamp of an issued ID and the clock is called drift. The available policies are:
+ * <ul>
+ * <li> {@link #borrow()}: Issues the IDs ahead of the clock, without any limit. This is the default policy.
+ * <li> {@link #borrow(long)}: Issues the IDs ahead of the clock, but waits for the clock to catch up whenever the
+ *      drift would exceed the given maximum.
+ * <li> {@link #await()}: Waits for the clock to reach the timestamp, so IDs are never issued ahead of the clock.
+ * <li> {@link #failFast()}: Throws {@link IllegalStateException} instead of issuing the IDs.
+ * </ul>
+ * <p>
+ * Waiting trades latency for timestamp fidelity. Both the current drift and the total time spent waiting can be
+ * observed from {@link TsidGenerator}.
+ */
+public final class TsidDriftPolicy {
+
+    private static final TsidDriftPolicy UNBOUNDED_BORROW = new TsidDriftPolicy(Long.MAX_VALUE, false);
+    private static final TsidDriftPolicy AWAIT = new TsidDriftPolicy(0, false);
+    private static final TsidDriftPolicy FAIL_FAST = new TsidDriftPolicy(0, true);
+
+    private final long maxDriftMillis;
+    private final boolean failFast;
+
+    private TsidDriftPolicy(long maxDriftMillis, boolean failFast) {
+        this.maxDriftMillis = maxDriftMillis;
+        this.failFast = failFast;
+    }
+
+    /**
+     * Gets {@link TsidDriftPolicy} that borrows ahead of the clock without any limit.
+     *
+     * @return Unbounded borrowing {@link TsidDriftPolicy}.
+     */
+    public static TsidDriftPolicy borrow() {
+        return UNBOUNDED_BORROW;
+    }
+
+    /**
+     * Gets {@link TsidDriftPolicy} that borrows ahead of the clock, up to {@code maxDriftMillis} milliseconds.
+     *
+     * @param maxDriftMillis The maximum drift, in milliseconds. Must be non-negative.
+     *
+     * @return Bounded borrowing {@link TsidDriftPolicy}.
+     *
+     * @throws IllegalArgumentException If the {@code maxDriftMillis} is negative.
+     */
+    public static TsidDriftPolicy borrow(long maxDriftMillis) {
+        if (maxDriftMillis < 0) {
+            throw new IllegalArgumentException("Max drift is below 0");
+        }
+        return new TsidDriftPolicy(maxDriftMillis, false);
+    }
+
+    /**
+     * Gets {@link TsidDriftPolicy} that waits for the clock to catch up.
+     *
+     * @return Waiting {@link TsidDriftPolicy}.
+     */
+    public static TsidDriftPolicy await() {
+        return AWAIT;
+    }
+
+    /**
+     * Gets {@link TsidDriftPolicy} that throws {@link IllegalStateException}.
+     *
+     * @return Failing {@link TsidDriftPolicy}.
+     */
+    public static TsidDriftPolicy failFast() {
+        return FAIL_FAST;
+    }
+
+    /**
+     * Gets the {@code maxDriftMillis} value. Irrelevant if the policy fails fast.
+     *
+     * @return {@code maxDriftMillis} value.
+     */
+    long getMaxDriftMillis() {
+        return maxDriftMillis;
+    }
+
+    /**
+     * Gets the {@code failFast} value.
+     *
+     * @return {@code failFast} value.
+     */
+    boolean isFailFast() {
+        return failFast;
+    }
+}
@@ -6,6 +6,12 @@ package io.github.x4ala1c.tsid;
 final class TsidErrorMessage {
 
     static final String NULL_CONFIGURATION = "Configuration is null";
+    static final String NULL_CLOCK = "Clock is null";
+    static final String NULL_GENERATOR = "Generator is null";
+    static final String NULL_SEQUENCE_SEED = "Sequence seed is null";
+    static final String NULL_DRIFT_POLICY = "Drift policy is null";
+    static final String NULL_LAYOUT = "Layout is null";
+    static final String NULL_PATH = "Path is null";
 
     private TsidErrorMessage() {
     }
@@ -1,7 +1,12 @@
 package io.github.x4ala1c.tsid;
 
-import java.security.SecureRandom;
 import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Generates {@link Tsid} based on the {@link TsidConfiguration}.
@@ -9,20 +14,97 @@ import java.time.Instant;
  * Users can either get an instance of the generator, or from globally available one per running app.
  * <p>
  * Any methods that does not use {@link TsidConfiguration} will be configured using default {@link TsidConfiguration}.
+ * <p>
+ * The generator is thread-safe and lock-free: the last issued timestamp and sequence are packed into a single
+ * atomic word, which is advanced with compare-and-set instead of holding a monitor.
  */
 public final class TsidGenerator {
 
-    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final long AWAIT_CLOCK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
 
     private static TsidGenerator instance;
 
     private final TsidConfiguration configuration;
+    private final TsidClock clock;
+    private final TsidSequenceSeed.Source sequenceSeed;
+    private final TsidDriftPolicy overflowPolicy;
+    private final TsidDriftPolicy clockRegressionPolicy;
+    private final TsidHighWaterMark highWaterMark;
+
+    /**
+     * The metrics to record, or null if they are disabled, in which case the hot path only pays for the null checks.
+     */
+    private final TsidMetrics metrics;
+
+    /*
+     * Values derived from the configuration and its layout, kept in final fields so the hot path does not have to
+     * go through the configuration.
+     */
+    private final long epoch;
+    private final long tickMillis;
+    private final int sequenceBits;
+    private final int timestampShift;
+    private final long maxTimestamp;
+    private final int sequenceMask;
+    private final long nodeValue;
+    private final long overflowMaxDrift;
+    private final long clockRegressionMaxDrift;
+
+    /**
+     * The last issued state, packed as {@code (timestamp << sequenceBits) | sequence}, with the timestamp in ticks
+     * since the epoch.
+     */
+    private final AtomicLong state;
 
-    private long prevTimestamp;
-    private long prevSequence;
+    /**
+     * The latest time read from the clock, in ticks since the epoch, to tell clock regressions apart from borrowed
+     * timestamps.
+     */
+    private final AtomicLong lastClockTimestamp = new AtomicLong();
+
+    /**
+     * The tick resumed at above the high-water mark, in ticks since the epoch, or 0 without a high-water mark. Until
+     * the clock reaches it, IDs are issued at this tick as if the clock read it, so the lead over the clock after a
+     * restart is neither a sequence overflow nor a clock regression.
+     */
+    private final long resumeTimestamp;
+
+    private final AtomicLong waitedNanos = new AtomicLong();
+
+    /**
+     * The first timestamp, in ticks since the epoch, not covered by the lease of the high-water mark. IDs at or after
+     * it must wait for the mark to be extended. Stays at {@link Long#MAX_VALUE} without a high-water mark.
+     */
+    private volatile long leaseEndTimestamp = Long.MAX_VALUE;
 
-    private TsidGenerator(TsidConfiguration configuration) {
+    TsidGenerator(TsidConfiguration configuration) {
+        final TsidLayout layout = configuration.getLayout();
         this.configuration = configuration;
+        this.clock = configuration.getClock();
+        this.sequenceSeed = configuration.getSequenceSeed().newSource();
+        this.overflowPolicy = configuration.getOverflowPolicy();
+        this.clockRegressionPolicy = configuration.getClockRegressionPolicy();
+        this.epoch = configuration.getEpoch();
+        this.tickMillis = layout.getTickMillis();
+        this.sequenceBits = layout.getSequenceBits();
+        this.timestampShift = layout.getTimestampShift();
+        this.maxTimestamp = layout.getMaxTimestamp();
+        this.sequenceMask = layout.getMaxSequence();
+        this.nodeValue = (long) configuration.getNode() << sequenceBits;
+        this.overflowMaxDrift = toTicks(overflowPolicy.getMaxDriftMillis());
+        this.clockRegressionMaxDrift = toTicks(clockRegressionPolicy.getMaxDriftMillis());
+        this.highWaterMark = configuration.getHighWaterMark();
+        this.metrics = configuration.isMetrics() ? new TsidMetrics(this) : null;
+        if (highWaterMark == null) {
+            this.state = new AtomicLong();
+            this.resumeTimestamp = 0;
+        } else {
+            // Resumes at the first tick at or above the mark, as if the sequence of the tick below was exhausted.
+            final long markMillis = highWaterMark.markMillis();
+            this.resumeTimestamp = Math.max(0, -Math.floorDiv(epoch - markMillis, tickMillis));
+            this.state = new AtomicLong(resumeTimestamp > 0 ? (resumeTimestamp << sequenceBits) - 1 : 0);
+            this.leaseEndTimestamp = Math.floorDiv(markMillis - epoch, tickMillis);
+        }
     }
 
     /**
@@ -76,9 +158,8 @@ public final class TsidGenerator {
         if (configuration == null) {
             throw new NullPointerException(TsidErrorMessage.NULL_CONFIGURATION);
         }
-        final TsidConfiguration noNodeConfiguration = TsidConfiguration.builder()
+        final TsidConfiguration noNodeConfiguration = configuration.toBuilder()
                 .node((short) Thread.currentThread().getId())
-                .epoch(configuration.getEpoch())
                 .build();
         return new TsidGenerator(noNodeConfiguration);
     }
@@ -144,6 +225,19 @@ public final class TsidGenerator {
         return instance.generate();
     }
 
+    /**
+     * Generates and returns the raw {@code long} value of a {@link Tsid} from the global {@link TsidGenerator}.
+     * Wrapper call to the {@code generateLong()}.
+     *
+     * @return {@code long} value of the generated {@link Tsid}.
+     */
+    public static long globalGenerateLong() {
+        if (instance == null) {
+            generateInstance(TsidConfiguration.fromEnvironment());
+        }
+        return instance.generateLong();
+    }
+
     /**
      * Generates and returns a {@link Tsid} from the current {@link TsidGenerator}.
      *
@@ -151,26 +245,298 @@ public final class TsidGenerator {
      *
      * @throws IllegalStateException If the current time exceeds the maximum allowable timestamp value.
      */
-    public synchronized Tsid generate() {
-        long currentTimestamp = Instant.now().toEpochMilli();
-        if (currentTimestamp > TsidConfiguration.MAX_EPOCH) {
+    public Tsid generate() {
+        return Tsid.fromLong(toValue(reserve(1)));
+    }
+
+    /**
+     * Generates and returns the raw {@code long} value of a {@link Tsid} from the current {@link TsidGenerator}.
+     * Unlike {@code generate()}, no object is allocated, so this is the preferred call when only the value is stored.
+     *
+     * @return {@code long} value of the generated {@link Tsid}.
+     *
+     * @throws IllegalStateException If the current time exceeds the maximum allowable timestamp value.
+     */
+    public long generateLong() {
+        return toValue(reserve(1));
+    }
+
+    /**
+     * Generates and returns {@code count} {@link Tsid}s from the current {@link TsidGenerator}. The whole block of
+     * sequence numbers is reserved in one step, so the IDs are consecutive and in ascending order. A block that does
+     * not fit into the current millisecond continues from the start of the next one.
+     *
+     * @param count The number of IDs to generate. Must be non-negative.
+     *
+     * @return Array of {@link Tsid}, in ascending order.
+     *
+     * @throws IllegalArgumentException If the {@code count} is negative.
+     * @throws IllegalStateException    If the current time exceeds the maximum allowable timestamp value.
+     */
+    public Tsid[] generate(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count is below 0");
+        }
+        final Tsid[] result = new Tsid[count];
+        if (count == 0) {
+            return result;
+        }
+        final long firstState = reserve(count);
+        for (int i = 0; i < count; i++) {
+            result[i] = Tsid.fromLong(toValue(firstState + i));
+        }
+        return result;
+    }
+
+    /**
+     * Fills the whole {@code ids} array with raw {@code long} values of newly generated {@link Tsid}s. Works the same
+     * as {@code generate(int)}, without allocating any {@link Tsid}.
+     *
+     * @param ids The array to fill.
+     *
+     * @throws NullPointerException  If the {@code ids} is null.
+     * @throws IllegalStateException If the current time exceeds the maximum allowable timestamp value.
+     */
+    public void fill(long[] ids) {
+        if (ids == null) {
+            throw new NullPointerException("Array is null");
+        }
+        fill(ids, 0, ids.length);
+    }
+
+    /**
+     * Fills {@code length} elements of {@code ids}, starting from {@code offset}, with raw {@code long} values of newly
+     * generated {@link Tsid}s. Works the same as {@code generate(int)}, without allocating any {@link Tsid}.
+     *
+     * @param ids    The array to fill.
+     * @param offset The index of the first element to fill.
+     * @param length The number of elements to fill.
+     *
+     * @throws NullPointerException      If the {@code ids} is null.
+     * @throws IndexOutOfBoundsException If the {@code offset} and {@code length} are out of the array's bounds.
+     * @throws IllegalStateException     If the current time exceeds the maximum allowable timestamp value.
+     */
+    public void fill(long[] ids, int offset, int length) {
+        if (ids == null) {
+            throw new NullPointerException("Array is null");
+        }
+        if (offset < 0 || length < 0 || offset > ids.length - length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length
+                    + ") is out of bounds for length " + ids.length);
+        }
+        if (length == 0) {
+            return;
+        }
+        final long firstState = reserve(length);
+        for (int i = 0; i < length; i++) {
+            ids[offset + i] = toValue(firstState + i);
+        }
+    }
+
+    /**
+     * Returns a sequential {@link LongStream} of {@code count} raw {@code long} values of newly generated
+     * {@link Tsid}s. The stream can be made parallel, in which case each split reserves its own blocks of sequence
+     * numbers, so workers rarely touch the generator at the same time. The size of the stream is known upfront.
+     * <p>
+     * IDs are generated lazily, as the stream is consumed. The order of the IDs is only guaranteed to be ascending in
+     * a sequential stream.
+     *
+     * @param count The number of IDs in the stream. Must be non-negative.
+     *
+     * @return {@link LongStream} of {@code long} values of {@link Tsid}s.
+     *
+     * @throws IllegalArgumentException If the {@code count} is negative.
+     */
+    public LongStream longs(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count is below 0");
+        }
+        return StreamSupport.longStream(new TsidSpliterator(this, count), false);
+    }
+
+    /**
+     * Returns a sequential {@link Stream} of {@code count} newly generated {@link Tsid}s. Works the same as
+     * {@code longs(long)}.
+     *
+     * @param count The number of IDs in the stream. Must be non-negative.
+     *
+     * @return {@link Stream} of {@link Tsid}s.
+     *
+     * @throws IllegalArgumentException If the {@code count} is negative.
+     */
+    public Stream<Tsid> tsids(long count) {
+        return longs(count).mapToObj(Tsid::fromLong);
+    }
+
+    /**
+     * Gets how far, in milliseconds, the timestamp of the last issued ID is ahead of the clock, due to sequence
+     * overflows or clock regressions.
+     *
+     * @return Current drift in milliseconds, or 0 if the last issued ID is not ahead of the clock.
+     */
+    public long driftMillis() {
+        return Math.max(0, (state.get() >>> sequenceBits) - currentTick()) * tickMillis;
+    }
+
+    /**
+     * Gets the total time spent waiting for the clock to catch up, as required by the {@link TsidDriftPolicy}s.
+     *
+     * @return Total waiting time in nanoseconds.
+     */
+    public long waitedNanos() {
+        return waitedNanos.get();
+    }
+
+    /**
+     * Gets the {@link TsidMetrics} of the current {@link TsidGenerator}, recorded when {@code metrics} is enabled in its
+     * {@link TsidConfiguration}.
+     *
+     * @return {@link TsidMetrics} of the current {@link TsidGenerator}, or null if metrics are disabled.
+     */
+    public TsidMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the {@link TsidConfiguration} of the current {@link TsidGenerator}.
+     *
+     * @return {@link TsidConfiguration} of the current {@link TsidGenerator}.
+     */
+    TsidConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Reserves {@code count} consecutive states and returns the first one. Adding to a state carries sequence
+     * overflows into the timestamp, so the remaining states are simply the following {@code count - 1} values.
+     */
+    private long reserve(int count) {
+        final long currentTimestamp = Math.max(currentTimestamp(), resumeTimestamp);
+        long prevState;
+        long firstState;
+        long lastState;
+        int attempts = 0;
+        do {
+            attempts++;
+            prevState = state.get();
+            firstState = nextState(prevState, currentTimestamp);
+            lastState = firstState + count - 1;
+            final long lastTimestamp = lastState >>> sequenceBits;
+            if (lastTimestamp > maxTimestamp) {
+                throw new IllegalStateException("Timestamp exceeded maximum allowed value");
+            }
+            if (overflowPolicy.isFailFast() && lastTimestamp > currentTimestamp) {
+                throw new IllegalStateException("Sequence exhausted for the current tick");
+            }
+        } while (!state.compareAndSet(prevState, lastState));
+        final long lastTimestamp = lastState >>> sequenceBits;
+        if (metrics != null) {
+            record(count, attempts > 1, lastTimestamp > currentTimestamp && lastTimestamp > prevState >>> sequenceBits);
+        }
+        if (lastTimestamp >= leaseEndTimestamp) {
+            extendLease(lastTimestamp);
+        }
+        if (lastTimestamp - currentTimestamp > overflowMaxDrift) {
+            awaitClock(lastTimestamp - overflowMaxDrift);
+        }
+        return firstState;
+    }
+
+    private void record(int count, boolean contended, boolean overflow) {
+        metrics.recordGenerated(count);
+        if (contended) {
+            metrics.recordContention();
+        }
+        if (overflow) {
+            metrics.recordOverflow();
+        }
+    }
+
+    /**
+     * Extends the high-water mark past {@code timestamp}, in ticks since the epoch, before any ID with that timestamp
+     * is handed out.
+     */
+    private void extendLease(long timestamp) {
+        final long markMillis = highWaterMark.extend(epoch + (timestamp + 1) * tickMillis);
+        leaseEndTimestamp = Math.floorDiv(markMillis - epoch, tickMillis);
+    }
+
+    /**
+     * Reads the clock and applies the clock regression policy. Returns the time, in ticks since the epoch, that issued
+     * IDs are compared against for the overflow policy, which is the latest time seen so far.
+     */
+    private long currentTimestamp() {
+        final long lastTimestamp = lastClockTimestamp.get();
+        final long currentTimestamp = currentTick();
+        if (currentTimestamp > maxTimestamp) {
             throw new IllegalStateException("Timestamp exceeded maximum allowed value");
         }
-        long currentSequence = this.prevSequence + 1;
+        if (currentTimestamp < 0) {
+            throw new IllegalStateException("Timestamp is before the epoch");
+        }
+        if (currentTimestamp >= lastTimestamp) {
+            if (currentTimestamp > lastTimestamp) {
+                lastClockTimestamp.compareAndSet(lastTimestamp, currentTimestamp);
+            }
+            return currentTimestamp;
+        }
+        if (metrics != null) {
+            metrics.recordClockRegression();
+        }
+        if (clockRegressionPolicy.isFailFast()) {
+            throw new IllegalStateException("Clock moved backwards by " + (lastTimestamp - currentTimestamp) * tickMillis
+                    + " ms");
+        }
+        if (lastTimestamp - currentTimestamp > clockRegressionMaxDrift) {
+            return Math.max(lastTimestamp, awaitClock(lastTimestamp - clockRegressionMaxDrift));
+        }
+        return lastTimestamp;
+    }
+
+    /**
+     * Reads the clock, in ticks since the epoch.
+     */
+    private long currentTick() {
+        final long elapsedMillis = clock.millis() - epoch;
+        return tickMillis == 1 ? elapsedMillis : Math.floorDiv(elapsedMillis, tickMillis);
+    }
+
+    private long toTicks(long millis) {
+        return millis == Long.MAX_VALUE ? Long.MAX_VALUE : millis / tickMillis;
+    }
+
+    /**
+     * Waits until the clock reaches {@code timestamp}, and returns the time read from the clock at that point. Both
+     * are in ticks since the epoch.
+     */
+    private long awaitClock(long timestamp) {
+        final long startNanos = System.nanoTime();
+        long currentTimestamp;
+        while ((currentTimestamp = currentTick()) < timestamp) {
+            LockSupport.parkNanos(this, AWAIT_CLOCK_NANOS);
+        }
+        waitedNanos.addAndGet(System.nanoTime() - startNanos);
+        return currentTimestamp;
+    }
+
+    private long toValue(long state) {
+        return ((state >>> sequenceBits) << timestampShift) | nodeValue | (state & sequenceMask);
+    }
+
+    /**
+     * Computes the state following {@code prevState}. A newer timestamp starts a seeded sequence, while the same or
+     * an older timestamp continues the previous one. Once the sequence is exhausted, the timestamp is moved to the
+     * next tick.
+     */
+    private long nextState(long prevState, long currentTimestamp) {
+        final long prevTimestamp = prevState >>> sequenceBits;
         if (currentTimestamp > prevTimestamp) {
-            currentSequence = RANDOM.nextInt(TsidConfiguration.MAX_SEQUENCE + 1);
-        } else if (currentTimestamp < prevTimestamp) {
-            currentTimestamp = prevTimestamp;
-        }
-        if (currentSequence > TsidConfiguration.MAX_SEQUENCE) {
-            currentSequence = RANDOM.nextInt(TsidConfiguration.MAX_SEQUENCE + 1);
-            currentTimestamp++;
-        }
-        this.prevTimestamp = currentTimestamp;
-        this.prevSequence = currentSequence;
-        long result = (currentTimestamp - configuration.getEpoch()) << 22;
-        result |= ((long) configuration.getNode() << 12);
-        result |= currentSequence;
-        return Tsid.fromLong(result);
+            return (currentTimestamp << sequenceBits) | sequenceSeed.next(sequenceMask + 1);
+        }
+        final long currentSequence = (prevState & sequenceMask) + 1;
+        if (currentSequence > sequenceMask) {
+            return ((prevTimestamp + 1) << sequenceBits) | sequenceSeed.next(sequenceMask + 1);
+        }
+        return (prevTimestamp << sequenceBits) | currentSequence;
     }
 }
@@ -0,0 +1,207 @@
+package io.github.x4ala1c.tsid;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Registry of per-thread {@link TsidGenerator}s, each bound to a unique node value leased from a bounded range.
+ * <p>
+ * A thread leases a node on its first call to {@link #current()}, and keeps it until it calls {@link #release()} or
+ * dies. The nodes of dead threads are reclaimed when the range runs out, so the pool can serve an unbounded number of
+ * short-lived threads, as long as no more than the range's size are alive and leasing at the same time. Once all
+ * nodes are leased, {@link #current()} throws {@link IllegalStateException}.
+ * <p>
+ * Unlike {@link TsidGenerator#threadGenerator()}, the node does not depend on the thread's ID, so threads never share
+ * a node by accident. Each node keeps its own {@link TsidGenerator} across leases, so a reclaimed node continues from
+ * the state left by its previous owner.
+ */
+public final class TsidGeneratorPool {
+
+    private final int minNode;
+    private final TsidGenerator[] generators;
+    private final Lease[] leases;
+    private final ReferenceQueue<Thread> collectedThreads = new ReferenceQueue<>();
+    private final ThreadLocal<Lease> currentLease = new ThreadLocal<>();
+
+    private int nextSlot;
+    private int leasedCount;
+
+    private TsidGeneratorPool(TsidConfiguration configuration, int minNode, int maxNode) {
+        this.minNode = minNode;
+        this.generators = new TsidGenerator[maxNode - minNode + 1];
+        for (int i = 0; i < generators.length; i++) {
+            generators[i] = new TsidGenerator(configuration.toBuilder()
+                    .node(minNode + i)
+                    .build());
+        }
+        this.leases = new Lease[generators.length];
+    }
+
+    /**
+     * Gets {@link TsidGeneratorPool} leasing every node value, configured by {@link TsidConfiguration}. The
+     * {@code node} of the configuration is ignored.
+     *
+     * @param configuration The instance of {@link TsidConfiguration}.
+     *
+     * @return Instance of {@link TsidGeneratorPool}.
+     *
+     * @throws NullPointerException If the {@code configuration} is null.
+     */
+    public static TsidGeneratorPool pool(TsidConfiguration configuration) {
+        if (configuration == null) {
+            throw new NullPointerException(TsidErrorMessage.NULL_CONFIGURATION);
+        }
+        return pool(configuration, 0, configuration.getLayout().getMaxNode());
+    }
+
+    /**
+     * Gets {@link TsidGeneratorPool} leasing node values in range [{@code minNode}, {@code maxNode}], configured by
+     * {@link TsidConfiguration}. The {@code node} of the configuration is ignored.
+     *
+     * @param configuration The instance of {@link TsidConfiguration}.
+     * @param minNode       The lowest node value to lease.
+     * @param maxNode       The highest node value to lease.
+     *
+     * @return Instance of {@link TsidGeneratorPool}.
+     *
+     * @throws NullPointerException     If the {@code configuration} is null.
+     * @throws IllegalArgumentException If the range is empty or out of the acceptable node range.
+     */
+    public static TsidGeneratorPool pool(TsidConfiguration configuration, int minNode, int maxNode) {
+        if (configuration == null) {
+            throw new NullPointerException(TsidErrorMessage.NULL_CONFIGURATION);
+        }
+        final int layoutMaxNode = configuration.getLayout().getMaxNode();
+        if (minNode < 0 || maxNode > layoutMaxNode || minNode > maxNode) {
+            throw new IllegalArgumentException("Node range must be within 0 and " + layoutMaxNode);
+        }
+        return new TsidGeneratorPool(configuration, minNode, maxNode);
+    }
+
+    /**
+     * Gets the {@link TsidGenerator} of the current thread, leasing a node for it first if needed.
+     *
+     * @return Instance of {@link TsidGenerator} leased by the current thread.
+     *
+     * @throws IllegalStateException If all nodes are leased by live threads.
+     */
+    public TsidGenerator current() {
+        Lease lease = currentLease.get();
+        if (lease == null) {
+            lease = acquire();
+            currentLease.set(lease);
+        }
+        return generators[lease.slot];
+    }
+
+    /**
+     * Generates and returns a {@link Tsid} from the {@link TsidGenerator} of the current thread.
+     *
+     * @return Instance of {@link Tsid}.
+     *
+     * @throws IllegalStateException If all nodes are leased by live threads, or the current time exceeds the maximum
+     *                               allowable timestamp value.
+     */
+    public Tsid generate() {
+        return current().generate();
+    }
+
+    /**
+     * Generates and returns the raw {@code long} value of a {@link Tsid} from the {@link TsidGenerator} of the current
+     * thread.
+     *
+     * @return {@code long} value of the generated {@link Tsid}.
+     *
+     * @throws IllegalStateException If all nodes are leased by live threads, or the current time exceeds the maximum
+     *                               allowable timestamp value.
+     */
+    public long generateLong() {
+        return current().generateLong();
+    }
+
+    /**
+     * Returns the node leased by the current thread, if any, to the pool.
+     */
+    public void release() {
+        final Lease lease = currentLease.get();
+        if (lease == null) {
+            return;
+        }
+        currentLease.remove();
+        synchronized (this) {
+            if (leases[lease.slot] == lease) {
+                leases[lease.slot] = null;
+                leasedCount--;
+            }
+        }
+        lease.clear();
+    }
+
+    /**
+     * Gets the number of nodes not leased by any thread. Nodes of dead threads are counted as leased until they are
+     * reclaimed.
+     *
+     * @return Number of available nodes.
+     */
+    public synchronized int available() {
+        reclaimCollected();
+        return leases.length - leasedCount;
+    }
+
+    private synchronized Lease acquire() {
+        reclaimCollected();
+        if (leasedCount == leases.length) {
+            reclaimDead();
+        }
+        if (leasedCount == leases.length) {
+            throw new IllegalStateException("All " + leases.length + " nodes in range [" + minNode + ", "
+                    + (minNode + leases.length - 1) + "] are leased");
+        }
+        int slot = nextSlot;
+        while (leases[slot] != null) {
+            slot = (slot + 1) % leases.length;
+        }
+        nextSlot = (slot + 1) % leases.length;
+        final Lease lease = new Lease(Thread.currentThread(), slot, collectedThreads);
+        leases[slot] = lease;
+        leasedCount++;
+        return lease;
+    }
+
+    private void reclaimCollected() {
+        Lease lease;
+        while ((lease = (Lease) collectedThreads.poll()) != null) {
+            if (leases[lease.slot] == lease) {
+                leases[lease.slot] = null;
+                leasedCount--;
+            }
+        }
+    }
+
+    private void reclaimDead() {
+        for (int i = 0; i < leases.length; i++) {
+            final Lease lease = leases[i];
+            if (lease == null) {
+                continue;
+            }
+            final Thread owner = lease.get();
+            if (owner == null || !owner.isAlive()) {
+                leases[i] = null;
+                leasedCount--;
+            }
+        }
+    }
+
+    /**
+     * Node lease of a thread. Holds the thread weakly, so the lease is enqueued once the thread is collected.
+     */
+    private static final class Lease extends WeakReference<Thread> {
+
+        private final int slot;
+
+        private Lease(Thread owner, int slot, ReferenceQueue<Thread> queue) {
+            super(owner, queue);
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.x4ala1c.tsid;
+
+/**
+ * Hashing and sizing shared by the open-addressing collections of raw {@link Tsid} values.
+ */
+final class TsidHashing {
+
+    static final long EMPTY = -1;
+    static final int MIN_CAPACITY = 2;
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private TsidHashing() {
+    }
+
+    /**
+     * Mixes all bits of {@code value} into all bits of the result. The low bits of a {@link Tsid} are its node and
+     * sequence, which take few distinct values in a set of IDs, so they cannot be used as the hash directly.
+     */
+    static long mix(long value) {
+        long result = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        result = (result ^ (result >>> 27)) * 0x94D049BB133111EBL;
+        return result ^ (result >>> 31);
+    }
+
+    /**
+     * Gets the power-of-2 table size that holds {@code expectedSize} values below the maximum load factor of 3/4.
+     */
+    static int tableSize(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must be at least 0");
+        }
+        final long minimumSize = Math.max(MIN_CAPACITY, (long) expectedSize * 4 / 3 + 1);
+        if (minimumSize > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Expected size must be at most " + maxSize(MAX_CAPACITY));
+        }
+        final int highestOneBit = Integer.highestOneBit((int) minimumSize);
+        return highestOneBit == minimumSize ? highestOneBit : highestOneBit << 1;
+    }
+
+    /**
+     * Gets the number of values a table of {@code tableSize} holds before it must grow.
+     */
+    static int maxSize(int tableSize) {
+        return (int) ((long) tableSize * 3 / 4);
+    }
+
+    static void checkValue(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value is below 0");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.x4ala1c.tsid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Persisted high-water mark of the timestamps issued by {@link TsidGenerator}s, so that a restarted process never
+ * issues an ID it issued before, even if its clock is behind or it restarts within the same millisecond.
+ * <p>
+ * The mark is a time, in milliseconds since the Unix epoch, that is above the timestamp of every issued ID. It is kept
+ * in a small memory-mapped file. Generators do not write it for each ID: they lease a window ahead of the current time,
+ * and only move the mark, and flush it to disk, when their IDs reach the end of the window. On start, a generator
+ * resumes strictly above the stored mark, without waiting, so its first IDs may be ahead of the clock by up to the
+ * lease.
+ * <p>
+ * A {@link TsidHighWaterMark} is shared by all generators of a {@link TsidConfiguration}. While it is open, it holds an
+ * exclusive {@link FileLock} on its file, so that it cannot be opened twice at the same time, in the same or another
+ * JVM, where each writer could overwrite the mark of the other with a lower one.
+ */
+public final class TsidHighWaterMark implements Closeable {
+
+    private static final long MAGIC = 0x54534944_48574D31L;
+    private static final int FILE_BYTES = 16;
+    private static final long DEFAULT_LEASE_MILLIS = 1000;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long leaseMillis;
+
+    private volatile long markMillis;
+    private boolean closed;
+
+    private TsidHighWaterMark(FileChannel channel, MappedByteBuffer buffer, long leaseMillis, long markMillis) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.leaseMillis = leaseMillis;
+        this.markMillis = markMillis;
+    }
+
+    /**
+     * Opens the high-water mark stored in {@code file}, with a lease of 1 second.
+     *
+     * @param file The file to store the mark in. It is created if it does not exist.
+     *
+     * @return new instance of {@link TsidHighWaterMark}.
+     *
+     * @throws NullPointerException If the {@code file} is null.
+     * @throws IOException          If the file cannot be opened, is already open, or is not a high-water mark file.
+     */
+    public static TsidHighWaterMark open(Path file) throws IOException {
+        return open(file, DEFAULT_LEASE_MILLIS);
+    }
+
+    /**
+     * Opens the high-water mark stored in {@code file}.
+     *
+     * @param file        The file to store the mark in. It is created if it does not exist.
+     * @param leaseMillis How far, in milliseconds, the mark is moved ahead of the issued timestamps. Longer leases
+     *                    write less often, but let IDs run further ahead of the clock after a restart.
+     *
+     * @return new instance of {@link TsidHighWaterMark}.
+     *
+     * @throws NullPointerException     If the {@code file} is null.
+     * @throws IllegalArgumentException If the {@code leaseMillis} is not positive.
+     * @throws IOException              If the file cannot be opened, is already open, or is not a high-water mark
+     *                                  file.
+     */
+    public static TsidHighWaterMark open(Path file, long leaseMillis) throws IOException {
+        if (file == null) {
+            throw new NullPointerException(TsidErrorMessage.NULL_PATH);
+        }
+        if (leaseMillis <= 0) {
+            throw new IllegalArgumentException("Lease must be at least 1 millisecond");
+        }
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            lock(channel, file);
+            final long fileSize = channel.size();
+            if (fileSize != 0 && fileSize != FILE_BYTES) {
+                throw new IOException("File " + file + " is not a high-water mark file");
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+            if (fileSize == 0) {
+                buffer.putLong(0, MAGIC);
+                buffer.putLong(Long.BYTES, 0);
+                buffer.force();
+            } else if (buffer.getLong(0) != MAGIC) {
+                throw new IOException("File " + file + " is not a high-water mark file");
+            }
+            return new TsidHighWaterMark(channel, buffer, leaseMillis, buffer.getLong(Long.BYTES));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void lock(FileChannel channel, Path file) throws IOException {
+        final FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            throw new IOException("High-water mark " + file + " is already open", e);
+        }
+        if (lock == null) {
+            throw new IOException("High-water mark " + file + " is already open");
+        }
+    }
+
+    /**
+     * Gets the current mark, above the timestamp of every ID issued so far.
+     *
+     * @return The mark, in milliseconds since the Unix epoch.
+     */
+    public long markMillis() {
+        return markMillis;
+    }
+
+    /**
+     * Gets the lease, how far the mark is moved ahead of the issued timestamps.
+     *
+     * @return The lease, in milliseconds.
+     */
+    public long leaseMillis() {
+        return leaseMillis;
+    }
+
+    /**
+     * Flushes the mark to disk and releases the lock on its file. Generators of the mark can then no longer move it,
+     * so they fail once they reach the end of their lease. The mapping of the file is released once it is
+     * garbage-collected.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        buffer.force();
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // The lock is released anyway once the JVM exits.
+        }
+    }
+
+    /**
+     * Makes sure that the mark is at least {@code requiredMillis}, moving it a lease further and flushing it to disk
+     * if it is not. Returns the mark, which is durable once this method returns.
+     *
+     * @throws IllegalStateException If the mark has to be moved, but is closed.
+     */
+    synchronized long extend(long requiredMillis) {
+        if (markMillis >= requiredMillis) {
+            return markMillis;
+        }
+        if (closed) {
+            throw new IllegalStateException("High-water mark is closed");
+        }
+        final long newMarkMillis = requiredMillis + leaseMillis;
+        buffer.putLong(Long.BYTES, newMarkMillis);
+        buffer.force();
+        markMillis = newMarkMillis;
+        return newMarkMillis;
+    }
+}
@@ -0,0 +1,660 @@
+package io.github.x4ala1c.tsid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * Append-only journal of raw {@link Tsid} values, written to memory-mapped segment files in a local directory.
+ * <p>
+ * Each segment holds a fixed number of IDs. When it is full, it is flushed to disk and a new segment is started. A
+ * segment file starts with a header, followed by its sparse index and then by its IDs as 8-byte big-endian values:
+ * <ul>
+ * <li> Header: the magic number, the capacity of the segment and the number of IDs per block.
+ * <li> Index: the minimum and the maximum ID of each complete block, written once the block is complete.
+ * <li> IDs: each one with its sign bit set, which is never set in a {@link Tsid}. A slot that is still zero was never
+ *      written, which marks the end of the journal.
+ * </ul>
+ * <p>
+ * Since {@link Tsid}s sort by time, {@link #scan(long, long, LongConsumer)} uses the index to skip the segments and
+ * blocks that cannot hold an ID of the scanned range, which makes it a time-range scan when given the bounds of
+ * {@link Tsid#lowerBound(Instant)} and {@link Tsid#upperBound(Instant)}. Only the active segment stays mapped, for
+ * writing: full segments are sealed, with just their count and their minimum and maximum IDs kept in memory, and are
+ * mapped read-only for the duration of a scan that needs them.
+ * <p>
+ * Appended IDs are flushed to disk when a segment is full, on {@link #sync()} and {@link #close()}, and otherwise at
+ * most once per sync interval: a daemon thread flushes the IDs that are still pending once the interval has elapsed,
+ * even if nothing is appended anymore. On opening, the journal recovers from a crash by cutting the last
+ * segment at its first slot that was never written, erasing whatever follows it, and rebuilding its index. New segments
+ * are initialized in a temporary file and then moved into place, and a newest segment whose header was never written
+ * is deleted, so that a crash while rolling to a new segment does not prevent the journal from opening.
+ * <p>
+ * All methods are synchronized. While it is open, the journal holds an exclusive {@link FileLock} on a lock file in
+ * its directory, so that it cannot be opened twice at the same time, in the same or another JVM.
+ */
+public final class TsidJournal implements Closeable {
+
+    private static final long MAGIC = 0x54534944_4A524E31L;
+    private static final long WRITTEN = Long.MIN_VALUE;
+    private static final int HEADER_BYTES = 16;
+    private static final int INDEX_ENTRY_BYTES = 16;
+    private static final String SEGMENT_SUFFIX = ".tsj";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String LOCK_FILE_NAME = "journal.lock";
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final int blockSize;
+    private final long syncIntervalNanos;
+    private final List<Segment> segments = new ArrayList<>();
+    private final FileChannel lockChannel;
+    private final Thread flusher;
+
+    private Segment current;
+    private long lastSyncNanos = System.nanoTime();
+    private boolean dirty;
+    private boolean closed;
+
+    private TsidJournal(Builder builder) throws IOException {
+        this.directory = builder.directory;
+        this.segmentCapacity = builder.segmentCapacity;
+        this.blockSize = builder.blockSize;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(builder.syncIntervalMillis);
+        Files.createDirectories(directory);
+        this.lockChannel = lock(directory);
+        try {
+            open();
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+        if (syncIntervalNanos > 0) {
+            this.flusher = new Thread(this::flush, "tsid-journal-sync");
+            flusher.setDaemon(true);
+            flusher.start();
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    private static FileChannel lock(Path directory) throws IOException {
+        final FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        final FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException | IOException e) {
+            channel.close();
+            throw new IOException("Journal " + directory + " is already open", e);
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IOException("Journal " + directory + " is already open");
+        }
+        return channel;
+    }
+
+    private void open() throws IOException {
+        final List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                paths.add(path);
+            }
+        }
+        paths.sort(null);
+        // A crash while a segment was being created can leave a newest segment that was never written at all.
+        while (!paths.isEmpty() && Segment.isUnwritten(paths.get(paths.size() - 1))) {
+            Files.delete(paths.remove(paths.size() - 1));
+        }
+        for (int i = 0; i < paths.size(); i++) {
+            final Segment segment = Segment.open(paths.get(i), i == paths.size() - 1);
+            segments.add(segment);
+        }
+        if (segments.isEmpty()) {
+            roll();
+        } else {
+            current = segments.get(segments.size() - 1);
+        }
+    }
+
+    /**
+     * Simple Builder pattern for {@link TsidJournal}.
+     */
+    public static final class Builder {
+
+        private static final int DEFAULT_SEGMENT_CAPACITY = 1 << 23;
+        private static final int DEFAULT_BLOCK_SIZE = 4096;
+        private static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+        private static final int MAX_SEGMENT_CAPACITY = 1 << 27;
+
+        private final Path directory;
+        private int segmentCapacity = DEFAULT_SEGMENT_CAPACITY;
+        private int blockSize = DEFAULT_BLOCK_SIZE;
+        private long syncIntervalMillis = DEFAULT_SYNC_INTERVAL_MILLIS;
+
+        private Builder(Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Sets the number of IDs per segment file. Default is 8388608, that is 64 MiB of IDs.
+         */
+        public Builder segmentCapacity(int segmentCapacity) {
+            this.segmentCapacity = segmentCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the number of IDs per block of the sparse index. Default is 4096.
+         */
+        public Builder blockSize(int blockSize) {
+            this.blockSize = blockSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time, in milliseconds, that appended IDs stay pending before they are flushed to disk, on
+         * append or by the background thread. 0 flushes on every append, without a background thread. Default is
+         * 1000.
+         */
+        public Builder syncIntervalMillis(long syncIntervalMillis) {
+            this.syncIntervalMillis = syncIntervalMillis;
+            return this;
+        }
+
+        /**
+         * Opens the {@link TsidJournal}, creating its directory if needed and recovering its last segment.
+         *
+         * @return new instance of {@link TsidJournal}.
+         *
+         * @throws IllegalArgumentException If any of the values is out of its acceptable range.
+         * @throws IOException              If the journal cannot be opened, or is already open.
+         */
+        public TsidJournal build() throws IOException {
+            if (segmentCapacity <= 0 || segmentCapacity > MAX_SEGMENT_CAPACITY) {
+                throw new IllegalArgumentException("Segment capacity must be between 1 and " + MAX_SEGMENT_CAPACITY);
+            }
+            if (blockSize <= 0 || segmentCapacity % blockSize != 0) {
+                throw new IllegalArgumentException("Block size must be a positive divisor of the segment capacity");
+            }
+            if (Segment.fileSize(segmentCapacity, blockSize) > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Segment file must not be larger than " + Integer.MAX_VALUE
+                        + " bytes, use a smaller segment capacity or a larger block size");
+            }
+            if (syncIntervalMillis < 0) {
+                throw new IllegalArgumentException("Sync interval must be at least 0");
+            }
+            return new TsidJournal(this);
+        }
+    }
+
+    /**
+     * Gets a new {@link Builder} for {@link TsidJournal}, stored in {@code directory}.
+     *
+     * @param directory The directory of the segment files.
+     *
+     * @return new instance of {@link Builder}.
+     *
+     * @throws NullPointerException If the {@code directory} is null.
+     */
+    public static Builder builder(Path directory) {
+        if (directory == null) {
+            throw new NullPointerException(TsidErrorMessage.NULL_PATH);
+        }
+        return new Builder(directory);
+    }
+
+    /**
+     * Appends {@code value} to the journal.
+     *
+     * @param value The value of {@link Tsid} as long.
+     *
+     * @throws IllegalArgumentException If the {@code value} is negative.
+     * @throws IllegalStateException    If the journal is closed.
+     * @throws IOException              If a new segment cannot be created.
+     */
+    public synchronized void append(long value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value is below 0");
+        }
+        checkOpen();
+        appendUnchecked(value);
+        syncIfDue();
+    }
+
+    /**
+     * Appends {@code tsid} to the journal.
+     *
+     * @param tsid The {@link Tsid} to append.
+     *
+     * @throws NullPointerException  If the {@code tsid} is null.
+     * @throws IllegalStateException If the journal is closed.
+     * @throws IOException           If a new segment cannot be created.
+     */
+    public void append(Tsid tsid) throws IOException {
+        if (tsid == null) {
+            throw new NullPointerException("Tsid is null");
+        }
+        append(tsid.asLong());
+    }
+
+    /**
+     * Appends {@code length} values of {@code values}, starting from {@code offset}, to the journal. The sync interval
+     * is only checked once, after the whole batch.
+     *
+     * @param values The values of {@link Tsid} as long.
+     * @param offset The index of the first value to append.
+     * @param length The number of values to append.
+     *
+     * @throws NullPointerException      If the {@code values} is null.
+     * @throws IndexOutOfBoundsException If the range is out of bounds of {@code values}.
+     * @throws IllegalArgumentException  If any of the values is negative, in which case none is appended.
+     * @throws IllegalStateException     If the journal is closed.
+     * @throws IOException               If a new segment cannot be created.
+     */
+    public synchronized void append(long[] values, int offset, int length) throws IOException {
+        if (values == null) {
+            throw new NullPointerException("Values is null");
+        }
+        if (offset < 0 || length < 0 || offset > values.length - length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length
+                    + ") is out of bounds for length " + values.length);
+        }
+        long negative = 0;
+        for (int i = offset; i < offset + length; i++) {
+            negative |= values[i];
+        }
+        if (negative < 0) {
+            throw new IllegalArgumentException("Value is below 0");
+        }
+        checkOpen();
+        for (int i = offset; i < offset + length; i++) {
+            appendUnchecked(values[i]);
+        }
+        syncIfDue();
+    }
+
+    /**
+     * Calls {@code action} with each ID of the journal between {@code fromValue} and {@code toValue}, inclusive, in
+     * the order they were appended. Segments and blocks whose IDs are all out of the range are skipped.
+     *
+     * @param fromValue The smallest value of {@link Tsid} to scan.
+     * @param toValue   The largest value of {@link Tsid} to scan.
+     * @param action    The action to perform on each ID.
+     *
+     * @throws NullPointerException  If the {@code action} is null.
+     * @throws IllegalStateException If the journal is closed, or a segment cannot be read.
+     */
+    public synchronized void scan(long fromValue, long toValue, LongConsumer action) {
+        if (action == null) {
+            throw new NullPointerException("Action is null");
+        }
+        checkOpen();
+        for (Segment segment : segments) {
+            if (segment.count > 0 && segment.max >= fromValue && segment.min <= toValue) {
+                segment.scan(fromValue, toValue, action);
+            }
+        }
+    }
+
+    /**
+     * Calls {@code action} with each ID of the journal generated between {@code from} and {@code to}, inclusive, with
+     * {@code configuration}. The bounds are exact to the tick of the layout.
+     *
+     * @param from          The start of the time window.
+     * @param to            The end of the time window.
+     * @param configuration The {@link TsidConfiguration} the IDs were generated with.
+     * @param action        The action to perform on each ID.
+     *
+     * @throws NullPointerException     If any of the arguments is null.
+     * @throws IllegalArgumentException If the time window is out of the range of the layout.
+     * @throws IllegalStateException    If the journal is closed, or a segment cannot be read.
+     */
+    public void scan(Instant from, Instant to, TsidConfiguration configuration, LongConsumer action) {
+        scan(Tsid.lowerBound(from, configuration).asLong(), Tsid.upperBound(to, configuration).asLong(), action);
+    }
+
+    /**
+     * Gets the number of IDs in the journal.
+     *
+     * @return Size of the journal.
+     */
+    public synchronized long size() {
+        long result = 0;
+        for (Segment segment : segments) {
+            result += segment.count;
+        }
+        return result;
+    }
+
+    /**
+     * Flushes the appended IDs to disk.
+     *
+     * @throws IllegalStateException If the journal is closed.
+     */
+    public synchronized void sync() {
+        checkOpen();
+        current.buffer.force();
+        dirty = false;
+        lastSyncNanos = System.nanoTime();
+    }
+
+    /**
+     * Flushes the appended IDs to disk and closes the journal, releasing its lock. The mapping of the active segment is
+     * released once it is garbage-collected.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            current.buffer.force();
+            dirty = false;
+            closed = true;
+        }
+        boolean interrupted = false;
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            while (flusher.isAlive()) {
+                try {
+                    flusher.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        try {
+            lockChannel.close();
+        } catch (IOException ignored) {
+            // The lock is released anyway once the JVM exits.
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks whether the appended IDs are all flushed to disk.
+     */
+    synchronized boolean isSynced() {
+        return !dirty;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    private void appendUnchecked(long value) throws IOException {
+        if (current.count == current.capacity) {
+            current.seal();
+            roll();
+        }
+        current.append(value);
+        dirty = true;
+    }
+
+    private void syncIfDue() {
+        if (dirty && System.nanoTime() - lastSyncNanos >= syncIntervalNanos) {
+            sync();
+        }
+    }
+
+    /**
+     * Flushes the pending IDs of an idle journal, waking up once per sync interval.
+     */
+    private void flush() {
+        while (true) {
+            LockSupport.parkNanos(this, syncIntervalNanos);
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                syncIfDue();
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        final Path path = directory.resolve(String.format("%019d%s", segments.size(), SEGMENT_SUFFIX));
+        current = Segment.create(path, segmentCapacity, blockSize);
+        segments.add(current);
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final int capacity;
+        private final int blockSize;
+        private final int dataOffset;
+        private int count;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+        private long blockMin = Long.MAX_VALUE;
+        private long blockMax = Long.MIN_VALUE;
+        /**
+         * Read-write mapping of the active segment, null once the segment is sealed.
+         */
+        private MappedByteBuffer buffer;
+
+        private Segment(Path path, MappedByteBuffer buffer, int capacity, int blockSize) {
+            this.path = path;
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.blockSize = blockSize;
+            this.dataOffset = HEADER_BYTES + capacity / blockSize * INDEX_ENTRY_BYTES;
+        }
+
+        private static long fileSize(int capacity, int blockSize) {
+            return HEADER_BYTES + (long) capacity / blockSize * INDEX_ENTRY_BYTES + (long) capacity * Long.BYTES;
+        }
+
+        private static MappedByteBuffer map(Path path, long size, boolean writable) throws IOException {
+            if (writable) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                }
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+
+        /**
+         * Creates a segment. Its header is written and flushed to a temporary file, which is then moved into place,
+         * so that a segment file is never seen without its header.
+         */
+        static Segment create(Path path, int capacity, int blockSize) throws IOException {
+            if (Files.exists(path)) {
+                throw new IOException("Segment " + path + " already exists");
+            }
+            final long fileSize = fileSize(capacity, blockSize);
+            final Path temporary = path.resolveSibling(path.getFileName() + TEMPORARY_SUFFIX);
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putLong(MAGIC).putInt(capacity).putInt(blockSize).flip();
+                writeFully(channel, header, 0);
+                // Extends the file to its full size, leaving the index and the IDs at zero.
+                writeFully(channel, ByteBuffer.allocate(1), fileSize - 1);
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+            return new Segment(path, map(path, fileSize, true), capacity, blockSize);
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+        }
+
+        /**
+         * Checks whether the header of a segment was never written, which only happens to a newest segment when its
+         * creation was interrupted by a crash.
+         */
+        static boolean isUnwritten(Path path) throws IOException {
+            final ByteBuffer header = readHeader(path);
+            if (header.hasRemaining()) {
+                return true;
+            }
+            return header.getLong(0) == 0 && header.getLong(8) == 0;
+        }
+
+        /**
+         * Reads the header of a segment, which has remaining bytes if the file is shorter than a header.
+         */
+        private static ByteBuffer readHeader(Path path) throws IOException {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                while (header.hasRemaining()) {
+                    if (channel.read(header, header.position()) < 0) {
+                        break;
+                    }
+                }
+            }
+            return header;
+        }
+
+        /**
+         * Opens an existing segment. The last segment is recovered: it is cut at its first slot that was never
+         * written, and its index is rebuilt, and it stays mapped to be appended to. Other segments were flushed when
+         * they were full, so their index is read and they are opened sealed.
+         */
+        static Segment open(Path path, boolean last) throws IOException {
+            final long fileSize = Files.size(path);
+            final ByteBuffer header = readHeader(path);
+            if (header.hasRemaining()) {
+                throw new IOException("Segment " + path + " is truncated");
+            }
+            final int capacity = header.getInt(8);
+            final int blockSize = header.getInt(12);
+            if (header.getLong(0) != MAGIC || capacity <= 0 || blockSize <= 0 || capacity % blockSize != 0
+                    || fileSize != fileSize(capacity, blockSize)) {
+                throw new IOException("Segment " + path + " is not a journal segment");
+            }
+            if (last) {
+                final Segment segment = new Segment(path, map(path, fileSize, true), capacity, blockSize);
+                segment.recover();
+                return segment;
+            }
+            final Segment segment = new Segment(path, null, capacity, blockSize);
+            segment.readIndex(map(path, fileSize, false));
+            return segment;
+        }
+
+        /**
+         * Flushes a full segment to disk and drops its mapping, which is released once it is garbage-collected.
+         */
+        void seal() {
+            buffer.force();
+            buffer = null;
+        }
+
+        private int slotOffset(int slot) {
+            return dataOffset + slot * Long.BYTES;
+        }
+
+        private int indexOffset(int block) {
+            return HEADER_BYTES + block * INDEX_ENTRY_BYTES;
+        }
+
+        void append(long value) {
+            buffer.putLong(slotOffset(count), value | WRITTEN);
+            blockMin = Math.min(blockMin, value);
+            blockMax = Math.max(blockMax, value);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            count++;
+            if (count % blockSize == 0) {
+                final int block = count / blockSize - 1;
+                buffer.putLong(indexOffset(block), blockMin | WRITTEN);
+                buffer.putLong(indexOffset(block) + Long.BYTES, blockMax | WRITTEN);
+                blockMin = Long.MAX_VALUE;
+                blockMax = Long.MIN_VALUE;
+            }
+        }
+
+        private void readIndex(ByteBuffer view) {
+            for (int block = 0; block < capacity / blockSize; block++) {
+                final long blockMinimum = view.getLong(indexOffset(block));
+                if (blockMinimum == 0) {
+                    break;
+                }
+                min = Math.min(min, blockMinimum & ~WRITTEN);
+                max = Math.max(max, view.getLong(indexOffset(block) + Long.BYTES) & ~WRITTEN);
+                count += blockSize;
+            }
+        }
+
+        private void recover() {
+            int slots = 0;
+            while (slots < capacity && buffer.getLong(slotOffset(slots)) != 0) {
+                slots++;
+            }
+            for (int slot = slots; slot < capacity; slot++) {
+                if (buffer.getLong(slotOffset(slot)) != 0) {
+                    buffer.putLong(slotOffset(slot), 0);
+                }
+            }
+            for (int block = 0; block < capacity / blockSize; block++) {
+                buffer.putLong(indexOffset(block), 0);
+                buffer.putLong(indexOffset(block) + Long.BYTES, 0);
+            }
+            for (int slot = 0; slot < slots; slot++) {
+                append(buffer.getLong(slotOffset(slot)) & ~WRITTEN);
+            }
+            buffer.force();
+        }
+
+        /**
+         * Scans the segment, through a read-only mapping that is dropped afterwards if the segment is sealed.
+         */
+        void scan(long fromValue, long toValue, LongConsumer action) {
+            final ByteBuffer view;
+            if (buffer != null) {
+                view = buffer;
+            } else {
+                try {
+                    view = map(path, fileSize(capacity, blockSize), false);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot read segment " + path, e);
+                }
+            }
+            final int completeBlocks = count / blockSize;
+            for (int block = 0; block * blockSize < count; block++) {
+                if (block < completeBlocks) {
+                    final long blockMinimum = view.getLong(indexOffset(block)) & ~WRITTEN;
+                    final long blockMaximum = view.getLong(indexOffset(block) + Long.BYTES) & ~WRITTEN;
+                    if (blockMaximum < fromValue || blockMinimum > toValue) {
+                        continue;
+                    }
+                }
+                final int end = Math.min(count, (block + 1) * blockSize);
+                for (int slot = block * blockSize; slot < end; slot++) {
+                    final long value = view.getLong(slotOffset(slot)) & ~WRITTEN;
+                    if (value >= fromValue && value <= toValue) {
+                        action.accept(value);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.x4ala1c.tsid;
+
+/**
+ * Bit layout of {@link Tsid}, describing how its 63 usable bits (the sign bit is always 0) are split between the 3
+ * fields, from the most significant:
+ * <ul>
+ * <li> {@code timestampBits}: Number of bits of the timestamp, counted in ticks since the epoch.
+ * <li> {@code nodeBits}: Number of bits of the node. Acceptable range is [0, 30].
+ * <li> {@code sequenceBits}: Number of bits of the sequence. Acceptable range is [1, 30].
+ * </ul>
+ * The 3 widths must add up to 63. Additionally, {@code tickMillis} sets the length of a tick in milliseconds, so
+ * that a coarser tick extends the range of the timestamp, at the expense of its precision.
+ * <p>
+ * The default layout is 41 timestamp bits, 10 node bits and 12 sequence bits, with 1-millisecond ticks, which gives
+ * 1024 nodes, 4096 IDs per millisecond and node, and about 69 years of timestamps. A layout with fewer node bits
+ * trades nodes for more IDs per tick.
+ * <p>
+ * Users can create a custom {@link TsidLayout} using the provided {@link Builder}, which validates the widths.
+ */
+public final class TsidLayout {
+
+    private static final int USABLE_BITS = Long.SIZE - 1;
+    private static final int MAX_FIELD_BITS = 30;
+
+    private static final TsidLayout DEFAULT = builder().build();
+
+    private final int timestampBits;
+    private final int nodeBits;
+    private final int sequenceBits;
+    private final long tickMillis;
+    private final int timestampShift;
+    private final long maxTimestamp;
+    private final int maxNode;
+    private final int maxSequence;
+
+    private TsidLayout(Builder builder) {
+        if (builder.timestampBits < 1) {
+            throw new IllegalArgumentException("Timestamp bits must be at least 1");
+        }
+        if (builder.nodeBits < 0 || builder.nodeBits > MAX_FIELD_BITS) {
+            throw new IllegalArgumentException("Node bits must be between 0 and " + MAX_FIELD_BITS);
+        }
+        if (builder.sequenceBits < 1 || builder.sequenceBits > MAX_FIELD_BITS) {
+            throw new IllegalArgumentException("Sequence bits must be between 1 and " + MAX_FIELD_BITS);
+        }
+        if (builder.timestampBits + builder.nodeBits + builder.sequenceBits != USABLE_BITS) {
+            throw new IllegalArgumentException("Timestamp, node and sequence bits must add up to " + USABLE_BITS);
+        }
+        if (builder.tickMillis < 1) {
+            throw new IllegalArgumentException("Tick must be at least 1 millisecond");
+        }
+        this.timestampBits = builder.timestampBits;
+        this.nodeBits = builder.nodeBits;
+        this.sequenceBits = builder.sequenceBits;
+        this.tickMillis = builder.tickMillis;
+        this.timestampShift = nodeBits + sequenceBits;
+        this.maxTimestamp = (1L << timestampBits) - 1;
+        this.maxNode = (1 << nodeBits) - 1;
+        this.maxSequence = (1 << sequenceBits) - 1;
+    }
+
+    /**
+     * Simple Builder pattern for {@link TsidLayout}. Starts from the default layout.
+     */
+    public static final class Builder {
+
+        private int timestampBits = 41;
+        private int nodeBits = 10;
+        private int sequenceBits = 12;
+        private long tickMillis = 1;
+
+        private Builder() {
+        }
+
+        public Builder timestampBits(int timestampBits) {
+            this.timestampBits = timestampBits;
+            return this;
+        }
+
+        public Builder nodeBits(int nodeBits) {
+            this.nodeBits = nodeBits;
+            return this;
+        }
+
+        public Builder sequenceBits(int sequenceBits) {
+            this.sequenceBits = sequenceBits;
+            return this;
+        }
+
+        public Builder tickMillis(long tickMillis) {
+            this.tickMillis = tickMillis;
+            return this;
+        }
+
+        public TsidLayout build() {
+            return new TsidLayout(this);
+        }
+    }
+
+    /**
+     * Gets a new {@link Builder} for {@link TsidLayout}.
+     *
+     * @return new instance of {@link Builder}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the default {@link TsidLayout}: 41 timestamp bits, 10 node bits, 12 sequence bits and 1-millisecond ticks.
+     *
+     * @return Default {@link TsidLayout}.
+     */
+    public static TsidLayout defaultLayout() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets the {@code timestampBits} value.
+     *
+     * @return {@code timestampBits} value.
+     */
+    int getTimestampBits() {
+        return timestampBits;
+    }
+
+    /**
+     * Gets the {@code nodeBits} value.
+     *
+     * @return {@code nodeBits} value.
+     */
+    int getNodeBits() {
+        return nodeBits;
+    }
+
+    /**
+     * Gets the {@code sequenceBits} value.
+     *
+     * @return {@code sequenceBits} value.
+     */
+    int getSequenceBits() {
+        return sequenceBits;
+    }
+
+    /**
+     * Gets the {@code tickMillis} value.
+     *
+     * @return {@code tickMillis} value.
+     */
+    long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Gets the position of the lowest timestamp bit, which is also the number of bits below the timestamp.
+     *
+     * @return Shift of the timestamp.
+     */
+    int getTimestampShift() {
+        return timestampShift;
+    }
+
+    /**
+     * Gets the {@code maxTimestamp} value.
+     *
+     * @return {@code maxTimestamp} value.
+     */
+    long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    /**
+     * Gets the {@code maxNode} value.
+     *
+     * @return {@code maxNode} value.
+     */
+    int getMaxNode() {
+        return maxNode;
+    }
+
+    /**
+     * Gets the {@code maxSequence} value.
+     *
+     * @return {@code maxSequence} value.
+     */
+    int getMaxSequence() {
+        return maxSequence;
+    }
+
+    /**
+     * Extracts the timestamp, in ticks since the epoch, from the raw {@code long} value of a {@link Tsid}.
+     *
+     * @param value The value of {@link Tsid} as long.
+     *
+     * @return Timestamp in ticks.
+     */
+    long timestampOf(long value) {
+        return value >>> timestampShift;
+    }
+
+    /**
+     * Extracts the node from the raw {@code long} value of a {@link Tsid}.
+     *
+     * @param value The value of {@link Tsid} as long.
+     *
+     * @return Node value.
+     */
+    int nodeOf(long value) {
+        return (int) (value >>> sequenceBits) & maxNode;
+    }
+
+    /**
+     * Extracts the sequence from the raw {@code long} value of a {@link Tsid}.
+     *
+     * @param value The value of {@link Tsid} as long.
+     *
+     * @return Sequence value.
+     */
+    int sequenceOf(long value) {
+        return (int) value & maxSequence;
+    }
+}
@@ -0,0 +1,282 @@
+package io.github.x4ala1c.tsid;
+
+import java.util.Arrays;
+
+/**
+ * Map from {@link Tsid} to values, with keys stored as raw {@code long} values in a primitive array, without any entry
+ * or key object per mapping.
+ * <p>
+ * The map uses open addressing with linear probing over a power-of-2 table, which doubles once it is 3/4 full. Keys
+ * are spread over the table by a hash that mixes all of their bits, since the low node and sequence bits alone cluster.
+ * Removal shifts the following mappings back instead of leaving tombstones, so lookups never slow down over time.
+ * <p>
+ * Only non-negative keys, that is valid {@link Tsid}s, and non-null values can be put. This class is not thread-safe.
+ *
+ * @param <V> Type of the values.
+ */
+public final class TsidLongMap<V> {
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int maxSize;
+    private int size;
+
+    /**
+     * Action performed on each mapping by {@link #forEach(EntryConsumer)}.
+     *
+     * @param <V> Type of the values.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        /**
+         * Performs the action on a mapping.
+         *
+         * @param key   The key, the value of {@link Tsid} as long.
+         * @param value The value mapped to {@code key}.
+         */
+        void accept(long key, V value);
+    }
+
+    /**
+     * Creates an empty map.
+     */
+    public TsidLongMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map that holds {@code expectedSize} mappings without growing.
+     *
+     * @param expectedSize The number of mappings expected in the map.
+     *
+     * @throws IllegalArgumentException If the {@code expectedSize} is negative or too large.
+     */
+    public TsidLongMap(int expectedSize) {
+        allocate(TsidHashing.tableSize(expectedSize));
+    }
+
+    /**
+     * Gets the value mapped to {@code key}.
+     *
+     * @param key The value of {@link Tsid} as long.
+     * @return The value mapped to {@code key}, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key < 0) {
+            return null;
+        }
+        final int index = find(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    /**
+     * Gets the value mapped to {@code tsid}.
+     *
+     * @param tsid The {@link Tsid} to look for.
+     * @return The value mapped to {@code tsid}, or null if there is none.
+     */
+    public V get(Tsid tsid) {
+        return tsid == null ? null : get(tsid.asLong());
+    }
+
+    /**
+     * Checks whether the map contains a mapping for {@code key}.
+     *
+     * @param key The value of {@link Tsid} as long.
+     * @return {@code true} if the map contains {@code key}.
+     */
+    public boolean containsKey(long key) {
+        return key >= 0 && find(key) >= 0;
+    }
+
+    /**
+     * Maps {@code key} to {@code value}, replacing any previous value.
+     *
+     * @param key   The value of {@link Tsid} as long.
+     * @param value The value to map to {@code key}.
+     * @return The previous value mapped to {@code key}, or null if there was none.
+     *
+     * @throws IllegalArgumentException If the {@code key} is negative.
+     * @throws NullPointerException     If the {@code value} is null.
+     * @throws IllegalStateException    If the map cannot grow any further.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        TsidHashing.checkValue(key);
+        if (value == null) {
+            throw new NullPointerException("Value is null");
+        }
+        int index = indexOf(key);
+        long current;
+        while ((current = keys[index]) != TsidHashing.EMPTY) {
+            if (current == key) {
+                final V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        if (size >= maxSize) {
+            grow();
+            index = emptyIndexOf(key);
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * Maps {@code tsid} to {@code value}, replacing any previous value.
+     *
+     * @param tsid  The {@link Tsid} to map.
+     * @param value The value to map to {@code tsid}.
+     * @return The previous value mapped to {@code tsid}, or null if there was none.
+     *
+     * @throws NullPointerException  If the {@code tsid} or the {@code value} is null.
+     * @throws IllegalStateException If the map cannot grow any further.
+     */
+    public V put(Tsid tsid, V value) {
+        if (tsid == null) {
+            throw new NullPointerException("Tsid is null");
+        }
+        return put(tsid.asLong(), value);
+    }
+
+    /**
+     * Removes the mapping for {@code key}.
+     *
+     * @param key The value of {@link Tsid} as long.
+     * @return The value mapped to {@code key}, or null if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key < 0) {
+            return null;
+        }
+        final int index = find(key);
+        if (index < 0) {
+            return null;
+        }
+        final V previous = (V) values[index];
+        shiftBack(index);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Gets the number of mappings in the map.
+     *
+     * @return Size of the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map has no mapping.
+     *
+     * @return {@code true} if the map is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all mappings from the map, keeping its capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, TsidHashing.EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Performs {@code action} for each mapping of the map, in no particular order.
+     *
+     * @param action The action to perform on each mapping.
+     *
+     * @throws NullPointerException If the {@code action} is null.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        if (action == null) {
+            throw new NullPointerException("Action is null");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != TsidHashing.EMPTY) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        return (int) TsidHashing.mix(key) & mask;
+    }
+
+    private int find(long key) {
+        int index = indexOf(key);
+        long current;
+        while ((current = keys[index]) != TsidHashing.EMPTY) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int emptyIndexOf(long key) {
+        int index = indexOf(key);
+        while (keys[index] != TsidHashing.EMPTY) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * Empties the slot at {@code gap}, moving back each following mapping of the probe run whose home slot is not
+     * between the gap and itself.
+     */
+    private void shiftBack(int gap) {
+        int next = (gap + 1) & mask;
+        long current;
+        while ((current = keys[next]) != TsidHashing.EMPTY) {
+            if (((next - indexOf(current)) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = current;
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = TsidHashing.EMPTY;
+        values[gap] = null;
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        Arrays.fill(keys, TsidHashing.EMPTY);
+        values = new Object[tableSize];
+        mask = tableSize - 1;
+        maxSize = TsidHashing.maxSize(tableSize);
+    }
+
+    private void grow() {
+        if (keys.length == TsidHashing.MAX_CAPACITY) {
+            throw new IllegalStateException("Map cannot hold more than " + maxSize + " mappings");
+        }
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != TsidHashing.EMPTY) {
+                final int index = emptyIndexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package io.github.x4ala1c.tsid;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of {@link Tsid} stored as raw {@code long} values in a single primitive array, without any object per element.
+ * <p>
+ * The set uses open addressing with linear probing over a power-of-2 table, which doubles once it is 3/4 full. Values
+ * are spread over the table by a hash that mixes all of their bits, since the low node and sequence bits alone cluster.
+ * Removal shifts the following values back instead of leaving tombstones, so lookups never slow down over time.
+ * <p>
+ * Only non-negative values, that is valid {@link Tsid}s, can be added. This class is not thread-safe.
+ */
+public final class TsidLongSet {
+
+    private long[] values;
+    private int mask;
+    private int maxSize;
+    private int size;
+
+    /**
+     * Creates an empty set.
+     */
+    public TsidLongSet() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty set that holds {@code expectedSize} values without growing.
+     *
+     * @param expectedSize The number of values expected in the set.
+     *
+     * @throws IllegalArgumentException If the {@code expectedSize} is negative or too large.
+     */
+    public TsidLongSet(int expectedSize) {
+        allocate(TsidHashing.tableSize(expectedSize));
+    }
+
+    /**
+     * Adds {@code value} to the set.
+     *
+     * @param value The value of {@link Tsid} as long.
+     * @return {@code true} if the set did not contain {@code value}.
+     *
+     * @throws IllegalArgumentException If the {@code value} is negative.
+     * @throws IllegalStateException    If the set cannot grow any further.
+     */
+    public boolean add(long value) {
+        TsidHashing.checkValue(value);
+        int index = indexOf(value);
+        long current;
+        while ((current = values[index]) != TsidHashing.EMPTY) {
+            if (current == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        if (size >= maxSize) {
+            grow();
+            index = emptyIndexOf(value);
+        }
+        values[index] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds {@code tsid} to the set.
+     *
+     * @param tsid The {@link Tsid} to add.
+     * @return {@code true} if the set did not contain {@code tsid}.
+     *
+     * @throws NullPointerException  If the {@code tsid} is null.
+     * @throws IllegalStateException If the set cannot grow any further.
+     */
+    public boolean add(Tsid tsid) {
+        if (tsid == null) {
+            throw new NullPointerException("Tsid is null");
+        }
+        return add(tsid.asLong());
+    }
+
+    /**
+     * Checks whether the set contains {@code value}.
+     *
+     * @param value The value of {@link Tsid} as long.
+     * @return {@code true} if the set contains {@code value}.
+     */
+    public boolean contains(long value) {
+        return value >= 0 && find(value) >= 0;
+    }
+
+    /**
+     * Checks whether the set contains {@code tsid}.
+     *
+     * @param tsid The {@link Tsid} to look for.
+     * @return {@code true} if the set contains {@code tsid}.
+     */
+    public boolean contains(Tsid tsid) {
+        return tsid != null && contains(tsid.asLong());
+    }
+
+    /**
+     * Removes {@code value} from the set.
+     *
+     * @param value The value of {@link Tsid} as long.
+     * @return {@code true} if the set contained {@code value}.
+     */
+    public boolean remove(long value) {
+        if (value < 0) {
+            return false;
+        }
+        final int index = find(value);
+        if (index < 0) {
+            return false;
+        }
+        shiftBack(index);
+        size--;
+        return true;
+    }
+
+    /**
+     * Gets the number of values in the set.
+     *
+     * @return Size of the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the set has no value.
+     *
+     * @return {@code true} if the set is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all values from the set, keeping its capacity.
+     */
+    public void clear() {
+        Arrays.fill(values, TsidHashing.EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Performs {@code action} for each value of the set, in no particular order.
+     *
+     * @param action The action to perform on each value.
+     *
+     * @throws NullPointerException If the {@code action} is null.
+     */
+    public void forEach(LongConsumer action) {
+        if (action == null) {
+            throw new NullPointerException("Action is null");
+        }
+        for (long value : values) {
+            if (value != TsidHashing.EMPTY) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Copies the values of the set into a new array, in no particular order.
+     *
+     * @return The values of the set.
+     */
+    public long[] toArray() {
+        final long[] result = new long[size];
+        int count = 0;
+        for (long value : values) {
+            if (value != TsidHashing.EMPTY) {
+                result[count++] = value;
+            }
+        }
+        return result;
+    }
+
+    private int indexOf(long value) {
+        return (int) TsidHashing.mix(value) & mask;
+    }
+
+    private int find(long value) {
+        int index = indexOf(value);
+        long current;
+        while ((current = values[index]) != TsidHashing.EMPTY) {
+            if (current == value) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int emptyIndexOf(long value) {
+        int index = indexOf(value);
+        while (values[index] != TsidHashing.EMPTY) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * Empties the slot at {@code gap}, moving back each following value of the probe run whose home slot is not
+     * between the gap and itself.
+     */
+    private void shiftBack(int gap) {
+        int next = (gap + 1) & mask;
+        long current;
+        while ((current = values[next]) != TsidHashing.EMPTY) {
+            if (((next - indexOf(current)) & mask) >= ((next - gap) & mask)) {
+                values[gap] = current;
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[gap] = TsidHashing.EMPTY;
+    }
+
+    private void allocate(int tableSize) {
+        values = new long[tableSize];
+        Arrays.fill(values, TsidHashing.EMPTY);
+        mask = tableSize - 1;
+        maxSize = TsidHashing.maxSize(tableSize);
+    }
+
+    private void grow() {
+        if (values.length == TsidHashing.MAX_CAPACITY) {
+            throw new IllegalStateException("Set cannot hold more than " + maxSize + " values");
+        }
+        final long[] oldValues = values;
+        allocate(oldValues.length << 1);
+        for (long value : oldValues) {
+            if (value != TsidHashing.EMPTY) {
+                values[emptyIndexOf(value)] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package io.github.x4ala1c.tsid;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a {@link TsidGenerator}, recorded when {@code metrics} is enabled in its {@link TsidConfiguration}.
+ * <p>
+ * Counters are {@link LongAdder}s, so threads generating IDs at the same time do not contend on them. The drift and
+ * the waiting time are read from the generator itself. The metrics can be read directly, as a consistent-enough
+ * {@link Snapshot}, or through JMX once {@link #register(String) registered} to the platform MBean server.
+ */
+public final class TsidMetrics implements TsidMetricsMXBean {
+
+    private static final String DOMAIN = "io.github.x4ala1c.tsid";
+
+    private final TsidGenerator generator;
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder clockRegressions = new LongAdder();
+    private final LongAdder contentions = new LongAdder();
+
+    private ObjectName objectName;
+
+    TsidMetrics(TsidGenerator generator) {
+        this.generator = generator;
+    }
+
+    @Override
+    public long getGenerated() {
+        return generated.sum();
+    }
+
+    @Override
+    public long getOverflows() {
+        return overflows.sum();
+    }
+
+    @Override
+    public long getClockRegressions() {
+        return clockRegressions.sum();
+    }
+
+    @Override
+    public long getContentions() {
+        return contentions.sum();
+    }
+
+    @Override
+    public long getDriftMillis() {
+        return generator.driftMillis();
+    }
+
+    @Override
+    public long getWaitedNanos() {
+        return generator.waitedNanos();
+    }
+
+    /**
+     * Reads all the metrics at once. Counters updated while reading may be partially included.
+     *
+     * @return new instance of {@link Snapshot}.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(getGenerated(), getOverflows(), getClockRegressions(), getContentions(),
+                getDriftMillis(), getWaitedNanos());
+    }
+
+    /**
+     * Registers the metrics to the platform MBean server, under
+     * {@code io.github.x4ala1c.tsid:type=TsidGenerator,name=<name>}.
+     *
+     * @param name The name telling the generator apart from others.
+     *
+     * @return The {@link ObjectName} of the registered MBean.
+     *
+     * @throws NullPointerException  If the {@code name} is null.
+     * @throws IllegalStateException If the metrics are already registered, or the name is already taken.
+     */
+    public synchronized ObjectName register(String name) {
+        if (name == null) {
+            throw new NullPointerException("Name is null");
+        }
+        if (objectName != null) {
+            throw new IllegalStateException("Metrics are already registered as " + objectName);
+        }
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName newObjectName = new ObjectName(DOMAIN + ":type=TsidGenerator,name="
+                    + ObjectName.quote(name));
+            server.registerMBean(this, newObjectName);
+            objectName = newObjectName;
+            return newObjectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics as " + name, e);
+        }
+    }
+
+    /**
+     * Unregisters the metrics from the platform MBean server, if registered.
+     */
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException ignored) {
+            // Already unregistered from the server directly.
+        }
+        objectName = null;
+    }
+
+    void recordGenerated(int count) {
+        generated.add(count);
+    }
+
+    void recordOverflow() {
+        overflows.increment();
+    }
+
+    void recordClockRegression() {
+        clockRegressions.increment();
+    }
+
+    void recordContention() {
+        contentions.increment();
+    }
+
+    /**
+     * Metrics of a {@link TsidGenerator} read at one point.
+     */
+    public static final class Snapshot {
+
+        private final long generated;
+        private final long overflows;
+        private final long clockRegressions;
+        private final long contentions;
+        private final long driftMillis;
+        private final long waitedNanos;
+
+        private Snapshot(long generated, long overflows, long clockRegressions, long contentions, long driftMillis,
+                         long waitedNanos) {
+            this.generated = generated;
+            this.overflows = overflows;
+            this.clockRegressions = clockRegressions;
+            this.contentions = contentions;
+            this.driftMillis = driftMillis;
+            this.waitedNanos = waitedNanos;
+        }
+
+        /**
+         * Gets the number of IDs generated.
+         *
+         * @return Number of IDs.
+         */
+        public long generated() {
+            return generated;
+        }
+
+        /**
+         * Gets the number of reservations that borrowed the sequence of following ticks.
+         *
+         * @return Number of overflows.
+         */
+        public long overflows() {
+            return overflows;
+        }
+
+        /**
+         * Gets the number of clock reads that were behind an earlier read.
+         *
+         * @return Number of clock regressions.
+         */
+        public long clockRegressions() {
+            return clockRegressions;
+        }
+
+        /**
+         * Gets the number of reservations that lost a race against another thread, and had to be retried. A reservation
+         * is counted once, however many times it was retried.
+         *
+         * @return Number of contended reservations.
+         */
+        public long contentions() {
+            return contentions;
+        }
+
+        /**
+         * Gets how far, in milliseconds, the last issued ID was ahead of the clock.
+         *
+         * @return Drift in milliseconds.
+         */
+        public long driftMillis() {
+            return driftMillis;
+        }
+
+        /**
+         * Gets the total time spent waiting for the clock to catch up.
+         *
+         * @return Total waiting time in nanoseconds.
+         */
+        public long waitedNanos() {
+            return waitedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "TsidMetrics.Snapshot{generated=" + generated + ", overflows=" + overflows + ", clockRegressions="
+                    + clockRegressions + ", contentions=" + contentions + ", driftMillis=" + driftMillis
+                    + ", waitedNanos=" + waitedNanos + "}";
+        }
+    }
+}
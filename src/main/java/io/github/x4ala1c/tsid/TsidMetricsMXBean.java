@@ -0,0 +1,51 @@
+package io.github.x4ala1c.tsid;
+
+/**
+ * Management interface of {@link TsidMetrics}, exposing the metrics of a {@link TsidGenerator} through JMX.
+ */
+public interface TsidMetricsMXBean {
+
+    /**
+     * Gets the number of IDs generated.
+     *
+     * @return Number of IDs.
+     */
+    long getGenerated();
+
+    /**
+     * Gets the number of reservations that exhausted the sequence of the current tick, and borrowed the following
+     * ones.
+     *
+     * @return Number of overflows.
+     */
+    long getOverflows();
+
+    /**
+     * Gets the number of clock reads that were behind an earlier read.
+     *
+     * @return Number of clock regressions.
+     */
+    long getClockRegressions();
+
+    /**
+     * Gets the number of reservations that lost a race against another thread, and had to be retried. A reservation
+     * is counted once, however many times it was retried.
+     *
+     * @return Number of contended reservations.
+     */
+    long getContentions();
+
+    /**
+     * Gets how far, in milliseconds, the last issued ID is ahead of the clock.
+     *
+     * @return Current drift in milliseconds.
+     */
+    long getDriftMillis();
+
+    /**
+     * Gets the total time spent waiting for the clock to catch up.
+     *
+     * @return Total waiting time in nanoseconds.
+     */
+    long getWaitedNanos();
+}
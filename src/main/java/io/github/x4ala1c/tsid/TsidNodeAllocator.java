@@ -0,0 +1,276 @@
+package io.github.x4ala1c.tsid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Claims a node for {@link TsidConfiguration} that is unique among the processes of a host, without a central
+ * coordinator, through a file shared in a local directory.
+ * <p>
+ * The file has one 16-byte slot per node, holding the time of the last heartbeat of its owner and the owner's process
+ * ID. Claiming a node locks its slot with a {@link FileLock}, which the operating system releases when the owner exits,
+ * even if it crashes, so stale claims are reclaimed without any timeout. While the node is claimed, a daemon thread
+ * writes a heartbeat into the slot, and a last one when the node is released.
+ * <p>
+ * Among the free nodes, the one with the oldest heartbeat is claimed first, so that the node of a process that just
+ * exited is reused last, once the IDs it issued are well in the past.
+ * <p>
+ * Claims of the same JVM share a single channel to the file, since closing any channel to a file may release all the
+ * locks the JVM holds on it.
+ */
+public final class TsidNodeAllocator implements Closeable {
+
+    private static final String FILE_NAME = "tsid-nodes";
+    private static final int SLOT_BYTES = 16;
+    private static final int MAX_NODES = 1 << 16;
+    private static final long HEARTBEAT_MILLIS = 1000;
+
+    private static final Map<Path, SharedFile> files = new HashMap<>();
+    private static TsidNodeAllocator environmentAllocator;
+
+    private final SharedFile file;
+    private final FileLock lock;
+    private final int node;
+    private final Thread heartbeat;
+
+    private volatile boolean running = true;
+
+    private TsidNodeAllocator(SharedFile file, FileLock lock, int node) {
+        this.file = file;
+        this.lock = lock;
+        this.node = node;
+        this.heartbeat = new Thread(this::beat, "tsid-node-heartbeat");
+        heartbeat.setDaemon(true);
+        heartbeat.start();
+    }
+
+    /**
+     * Claims a free node in [0, 1023], the range of the default {@link TsidLayout}, from the file in
+     * {@code directory}.
+     *
+     * @param directory The directory of the shared file. It is created if it does not exist.
+     *
+     * @return new instance of {@link TsidNodeAllocator}, holding the claimed node.
+     *
+     * @throws NullPointerException  If the {@code directory} is null.
+     * @throws IllegalStateException If all the nodes are claimed.
+     * @throws IOException           If the shared file cannot be opened.
+     */
+    public static TsidNodeAllocator claim(Path directory) throws IOException {
+        return claim(directory, 0, TsidConfiguration.MAX_NODE);
+    }
+
+    /**
+     * Claims a free node in [{@code minNode}, {@code maxNode}] from the file in {@code directory}.
+     *
+     * @param directory The directory of the shared file. It is created if it does not exist.
+     * @param minNode   The smallest node to claim.
+     * @param maxNode   The largest node to claim.
+     *
+     * @return new instance of {@link TsidNodeAllocator}, holding the claimed node.
+     *
+     * @throws NullPointerException     If the {@code directory} is null.
+     * @throws IllegalArgumentException If the range is empty, negative or spans more than 65536 nodes.
+     * @throws IllegalStateException    If all the nodes of the range are claimed.
+     * @throws IOException              If the shared file cannot be opened.
+     */
+    public static TsidNodeAllocator claim(Path directory, int minNode, int maxNode) throws IOException {
+        if (directory == null) {
+            throw new NullPointerException(TsidErrorMessage.NULL_PATH);
+        }
+        if (minNode < 0 || minNode > maxNode || maxNode - minNode >= MAX_NODES) {
+            throw new IllegalArgumentException("Node range must be non-negative, non-empty and span at most "
+                    + MAX_NODES + " nodes");
+        }
+        final SharedFile file = acquire(directory);
+        try {
+            final TsidNodeAllocator allocator = tryClaim(file, minNode, maxNode);
+            if (allocator == null) {
+                throw new IllegalStateException("No free node between " + minNode + " and " + maxNode);
+            }
+            return allocator;
+        } catch (IOException | RuntimeException e) {
+            release(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the node claimed for this process from {@code directory}, claiming it on the first call. Used by
+     * {@link TsidConfiguration#fromEnvironment()}.
+     */
+    static synchronized int environmentNode(Path directory) {
+        if (environmentAllocator == null || !environmentAllocator.running
+                || !environmentAllocator.file.path.equals(directory.toAbsolutePath().normalize())) {
+            try {
+                environmentAllocator = claim(directory);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot claim a node in " + directory, e);
+            }
+        }
+        return environmentAllocator.node;
+    }
+
+    /**
+     * Gets the claimed node.
+     *
+     * @return The node, unique among the processes sharing the directory.
+     */
+    public int node() {
+        return node;
+    }
+
+    /**
+     * Releases the claimed node, after a last heartbeat. No ID should be generated with the node afterwards.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        LockSupport.unpark(heartbeat);
+        boolean interrupted = false;
+        while (heartbeat.isAlive()) {
+            try {
+                heartbeat.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        writeHeartbeat(file, node);
+        try {
+            lock.release();
+        } catch (IOException ignored) {
+            // The lock is released anyway once the channel is closed.
+        }
+        release(file);
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Tries to lock the free slots of the range, from the oldest heartbeat to the newest.
+     */
+    private static TsidNodeAllocator tryClaim(SharedFile file, int minNode, int maxNode) throws IOException {
+        final int count = maxNode - minNode + 1;
+        final ByteBuffer slots = ByteBuffer.allocate(count * SLOT_BYTES);
+        final long start = (long) minNode * SLOT_BYTES;
+        // Slots past the end of the file were never used, so they are left at zero.
+        while (slots.hasRemaining()) {
+            if (file.channel.read(slots, start + slots.position()) < 0) {
+                break;
+            }
+        }
+        // Sorts by heartbeat, then by node, packed in a single long: the heartbeat above the offset in the range.
+        final long[] candidates = new long[count];
+        for (int i = 0; i < count; i++) {
+            candidates[i] = (Math.max(0, slots.getLong(i * SLOT_BYTES)) << 16) | i;
+        }
+        Arrays.sort(candidates);
+        for (long candidate : candidates) {
+            final int node = minNode + (int) (candidate & (MAX_NODES - 1));
+            final FileLock lock;
+            try {
+                lock = file.channel.tryLock((long) node * SLOT_BYTES, SLOT_BYTES, false);
+            } catch (OverlappingFileLockException e) {
+                // Claimed by this JVM.
+                continue;
+            }
+            if (lock != null) {
+                writeHeartbeat(file, node);
+                return new TsidNodeAllocator(file, lock, node);
+            }
+        }
+        return null;
+    }
+
+    private static void writeHeartbeat(SharedFile file, int node) {
+        final ByteBuffer slot = ByteBuffer.allocate(SLOT_BYTES);
+        slot.putLong(0, System.currentTimeMillis());
+        slot.putLong(Long.BYTES, file.processId);
+        try {
+            file.channel.write(slot, (long) node * SLOT_BYTES);
+        } catch (IOException ignored) {
+            // A missed heartbeat only makes the node look older to the next claims.
+        }
+    }
+
+    private void beat() {
+        final long intervalNanos = TimeUnit.MILLISECONDS.toNanos(HEARTBEAT_MILLIS);
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            if (running) {
+                writeHeartbeat(file, node);
+            }
+        }
+    }
+
+    private static synchronized SharedFile acquire(Path directory) throws IOException {
+        final Path path = directory.toAbsolutePath().normalize();
+        SharedFile file = files.get(path);
+        if (file == null) {
+            Files.createDirectories(path);
+            final FileChannel channel = FileChannel.open(path.resolve(FILE_NAME), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            file = new SharedFile(path, channel);
+            files.put(path, file);
+        }
+        file.references++;
+        return file;
+    }
+
+    private static synchronized void release(SharedFile file) {
+        if (--file.references > 0) {
+            return;
+        }
+        files.remove(file.path);
+        try {
+            file.channel.close();
+        } catch (IOException ignored) {
+            // Nothing is left to release.
+        }
+    }
+
+    /**
+     * The channel to the file of a directory, shared by the claims of the JVM.
+     */
+    private static final class SharedFile {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final long processId;
+        private int references;
+
+        private SharedFile(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+            this.processId = processId();
+        }
+
+        private static long processId() {
+            final String name = ManagementFactory.getRuntimeMXBean().getName();
+            try {
+                return Long.parseLong(name.substring(0, name.indexOf('@')));
+            } catch (RuntimeException e) {
+                return 0;
+            }
+        }
+    }
+}
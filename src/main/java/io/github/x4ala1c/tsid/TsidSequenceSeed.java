@@ -0,0 +1,109 @@
+package io.github.x4ala1c.tsid;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strategy for the starting value of the sequence, drawn by {@link TsidGenerator} at every new millisecond and every
+ * sequence overflow.
+ * <p>
+ * A random start makes consecutive IDs harder to guess, while a lower start leaves more room in the sequence before it
+ * overflows into the next millisecond.
+ */
+public enum TsidSequenceSeed {
+
+    /**
+     * Draws from a shared {@link SecureRandom}, which is only initialized when first used. This is the slowest, but
+     * the least predictable strategy, and the default one.
+     */
+    SECURE_RANDOM {
+        @Override
+        Source newSource() {
+            return bound -> SecureRandomHolder.RANDOM.nextInt(bound);
+        }
+    },
+
+    /**
+     * Draws from a stream owned by each {@link TsidGenerator}, using the same algorithm as {@link SplittableRandom}.
+     * The stream is advanced atomically, so it is safe to share between threads.
+     */
+    SPLITTABLE_RANDOM {
+        @Override
+        Source newSource() {
+            return new SplitMixSource(new SplittableRandom().nextLong());
+        }
+    },
+
+    /**
+     * Draws from the {@link ThreadLocalRandom} of the calling thread.
+     */
+    THREAD_LOCAL_RANDOM {
+        @Override
+        Source newSource() {
+            return bound -> ThreadLocalRandom.current().nextInt(bound);
+        }
+    },
+
+    /**
+     * Always starts the sequence from 0. IDs become fully predictable, but every millisecond has its whole sequence
+     * available.
+     */
+    ZERO {
+        @Override
+        Source newSource() {
+            return bound -> 0;
+        }
+    };
+
+    /**
+     * Creates the {@link Source} to be used by a single {@link TsidGenerator}.
+     *
+     * @return new instance of {@link Source}.
+     */
+    abstract Source newSource();
+
+    /**
+     * Source of the sequence's starting values.
+     */
+    @FunctionalInterface
+    interface Source {
+
+        /**
+         * Gets the next starting value.
+         *
+         * @param bound The upper bound (exclusive). Must be a power of 2.
+         *
+         * @return The starting value, between 0 (inclusive) and {@code bound} (exclusive).
+         */
+        int next(int bound);
+    }
+
+    private static final class SecureRandomHolder {
+
+        private static final SecureRandom RANDOM = new SecureRandom();
+    }
+
+    /**
+     * SplitMix64 stream, as used by {@link SplittableRandom}, with its seed held in an {@link AtomicLong}.
+     */
+    private static final class SplitMixSource implements Source {
+
+        private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+        private final AtomicLong seed;
+
+        private SplitMixSource(long seed) {
+            this.seed = new AtomicLong(seed);
+        }
+
+        @Override
+        public int next(int bound) {
+            long z = seed.addAndGet(GOLDEN_GAMMA);
+            z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+            z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+            return (int) (z >>> 33) & (bound - 1);
+        }
+    }
+}
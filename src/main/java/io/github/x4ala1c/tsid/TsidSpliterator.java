@@ -0,0 +1,88 @@
+package io.github.x4ala1c.tsid;
+
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+
+/**
+ * {@link Spliterator} over a fixed number of raw {@code long} values of {@link Tsid}s from a {@link TsidGenerator}.
+ * <p>
+ * IDs are reserved from the generator in blocks, so each spliterator, including those split off for parallel
+ * processing, only touches the generator once per block.
+ */
+final class TsidSpliterator implements Spliterator.OfLong {
+
+    static final int BLOCK_SIZE = 1024;
+
+    private final TsidGenerator generator;
+    private final long[] block;
+    private long remaining;
+    private int blockIndex;
+    private int blockSize;
+
+    TsidSpliterator(TsidGenerator generator, long count) {
+        this.generator = generator;
+        this.block = new long[(int) Math.min(BLOCK_SIZE, Math.max(count, 1))];
+        this.remaining = count;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        if (action == null) {
+            throw new NullPointerException("Action is null");
+        }
+        if (remaining == 0) {
+            return false;
+        }
+        if (blockIndex == blockSize) {
+            reserveBlock();
+        }
+        remaining--;
+        action.accept(block[blockIndex++]);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+        if (action == null) {
+            throw new NullPointerException("Action is null");
+        }
+        while (remaining > 0) {
+            if (blockIndex == blockSize) {
+                reserveBlock();
+            }
+            final int end = blockSize;
+            for (int i = blockIndex; i < end; i++) {
+                action.accept(block[i]);
+            }
+            remaining -= end - blockIndex;
+            blockIndex = end;
+        }
+    }
+
+    @Override
+    public Spliterator.OfLong trySplit() {
+        final long unreserved = remaining - (blockSize - blockIndex);
+        if (unreserved < 2L * BLOCK_SIZE) {
+            return null;
+        }
+        final long splitCount = unreserved / 2;
+        remaining -= splitCount;
+        return new TsidSpliterator(generator, splitCount);
+    }
+
+    @Override
+    public long estimateSize() {
+        return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+        return SIZED | SUBSIZED | DISTINCT | NONNULL | IMMUTABLE;
+    }
+
+    private void reserveBlock() {
+        blockSize = (int) Math.min(block.length, remaining);
+        blockIndex = 0;
+        generator.fill(block, 0, blockSize);
+    }
+}
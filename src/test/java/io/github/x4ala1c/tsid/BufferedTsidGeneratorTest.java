@@ -0,0 +1,156 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class BufferedTsidGeneratorTest {
+
+    private static void awaitSize(BufferedTsidGenerator generator, int size) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (generator.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Assertions.assertThat(generator.size()).isGreaterThanOrEqualTo(size);
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testBuilder() {
+        final TsidGenerator generator = TsidGenerator.defaultGenerator();
+        Assertions.assertThatNullPointerException().isThrownBy(() -> BufferedTsidGenerator.builder(null));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> BufferedTsidGenerator.builder(generator).capacity(0).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> BufferedTsidGenerator.builder(generator).capacity(16).highWatermark(17).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> BufferedTsidGenerator.builder(generator).capacity(16).lowWatermark(16).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> BufferedTsidGenerator.builder(generator).lowWatermark(-1).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> BufferedTsidGenerator.builder(generator).maxStalenessMillis(1).build());
+        final TsidGenerator failFastGenerator = TsidGenerator.generator(TsidConfiguration.builder()
+                .overflowPolicy(TsidDriftPolicy.failFast())
+                .build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> BufferedTsidGenerator.builder(failFastGenerator).build());
+    }
+
+    @Test
+    void testRecoverFromFailure() throws InterruptedException {
+        final AtomicBoolean failing = new AtomicBoolean(true);
+        final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder()
+                .clock(() -> {
+                    if (failing.get()) {
+                        throw new IllegalStateException("Clock is unavailable");
+                    }
+                    return System.currentTimeMillis();
+                })
+                .build());
+        try (BufferedTsidGenerator buffered = BufferedTsidGenerator.builder(generator).capacity(64).build()) {
+            Thread.sleep(20);
+            Assertions.assertThat(buffered.size()).isZero();
+            Assertions.assertThatIllegalStateException().isThrownBy(buffered::nextLong)
+                    .withMessage("Clock is unavailable");
+            failing.set(false);
+            awaitSize(buffered, 48);
+            Assertions.assertThat(buffered.nextLong()).isPositive();
+        }
+    }
+
+    @Test
+    void testNext() throws InterruptedException {
+        try (BufferedTsidGenerator generator = BufferedTsidGenerator.builder(TsidGenerator.defaultGenerator())
+                .capacity(100)
+                .lowWatermark(10)
+                .highWatermark(100)
+                .build()) {
+            awaitSize(generator, 100);
+            final Set<Long> result = new HashSet<>();
+            for (int i = 0; i < 10000; i++) {
+                result.add(generator.nextLong());
+            }
+            Assertions.assertThat(result).hasSize(10000).allMatch(value -> value >= 0);
+            Assertions.assertThat(generator.next()).isNotNull();
+        }
+    }
+
+    @Test
+    void testFallbackAfterClose() throws InterruptedException {
+        final BufferedTsidGenerator generator = BufferedTsidGenerator.builder(TsidGenerator.defaultGenerator())
+                .capacity(16)
+                .lowWatermark(0)
+                .highWatermark(16)
+                .build();
+        awaitSize(generator, 16);
+        generator.close();
+        final Set<Long> result = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            result.add(generator.nextLong());
+        }
+        Assertions.assertThat(result).hasSize(100);
+        Assertions.assertThat(generator.size()).isZero();
+    }
+
+    @Test
+    void testStaleIdsAreDiscarded() throws InterruptedException {
+        final AtomicLong time = new AtomicLong(1_000_000);
+        final TsidGenerator tsidGenerator = TsidGenerator.generator(TsidConfiguration.builder()
+                .epoch(0)
+                .clock(time::get)
+                .build());
+        try (BufferedTsidGenerator generator = BufferedTsidGenerator.builder(tsidGenerator)
+                .capacity(64)
+                .maxStalenessMillis(20)
+                .build()) {
+            awaitSize(generator, 64);
+            Assertions.assertThat(generator.nextLong() >> 22).isEqualTo(1_000_000);
+            time.set(2_000_000);
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            long value = generator.nextLong();
+            while ((value >> 22) < 2_000_000 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+                value = generator.nextLong();
+            }
+            Assertions.assertThat(value >> 22).isEqualTo(2_000_000);
+        }
+    }
+
+    @Test
+    void testNextNoCollision() throws InterruptedException {
+        final int maxThreadCount = 8;
+        final int maxTsidCount = 10000;
+        final Set<Long> resultTsidHolder = ConcurrentHashMap.newKeySet();
+        final CountDownLatch countDownLatch = new CountDownLatch(maxThreadCount);
+        try (BufferedTsidGenerator generator = BufferedTsidGenerator.builder(TsidGenerator.defaultGenerator())
+                .capacity(256)
+                .build()) {
+            final List<Thread> threads = new LinkedList<>();
+            for (int i = 0; i < maxThreadCount; i++) {
+                threads.add(new Thread(() -> {
+                    try {
+                        final List<Long> result = new LinkedList<>();
+                        for (int j = 0; j < maxTsidCount; j++) {
+                            result.add(generator.nextLong());
+                        }
+                        resultTsidHolder.addAll(result);
+                    } finally {
+                        countDownLatch.countDown();
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            countDownLatch.await();
+        }
+        Assertions.assertThat(resultTsidHolder).hasSize(maxThreadCount * maxTsidCount);
+    }
+}
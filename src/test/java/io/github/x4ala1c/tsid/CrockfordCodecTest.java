@@ -0,0 +1,224 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+final class CrockfordCodecTest {
+
+    private static final long TSID_VALUE_LONG = 175928847299117063L;
+    private static final String TSID_VALUE_STRING = "09RGCPP108007";
+
+    @Test
+    void testEncodeString() {
+        Assertions.assertThat(CrockfordCodec.encode(TSID_VALUE_LONG)).isEqualTo(TSID_VALUE_STRING);
+        Assertions.assertThat(CrockfordCodec.encode(0)).isEqualTo("0000000000000");
+        Assertions.assertThat(CrockfordCodec.encode(Long.MAX_VALUE)).isEqualTo("FZZZZZZZZZZZF");
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testEncodeChars() {
+        final char[] destination = new char[15];
+        CrockfordCodec.encode(TSID_VALUE_LONG, destination, 1);
+        Assertions.assertThat(new String(destination, 1, 13)).isEqualTo(TSID_VALUE_STRING);
+        Assertions.assertThat(destination[0]).isEqualTo('\0');
+        Assertions.assertThat(destination[14]).isEqualTo('\0');
+        Assertions.assertThatNullPointerException()
+                .isThrownBy(() -> CrockfordCodec.encode(TSID_VALUE_LONG, (char[]) null, 0));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> CrockfordCodec.encode(TSID_VALUE_LONG, destination, 3));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> CrockfordCodec.encode(TSID_VALUE_LONG, destination, -1));
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testEncodeBytes() {
+        final byte[] destination = new byte[20];
+        CrockfordCodec.encode(TSID_VALUE_LONG, destination, 7);
+        Assertions.assertThat(new String(destination, 7, 13, StandardCharsets.US_ASCII)).isEqualTo(TSID_VALUE_STRING);
+        Assertions.assertThatNullPointerException()
+                .isThrownBy(() -> CrockfordCodec.encode(TSID_VALUE_LONG, (byte[]) null, 0));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> CrockfordCodec.encode(TSID_VALUE_LONG, destination, 8));
+    }
+
+    @Test
+    void testEncodeByteBuffer() {
+        final ByteBuffer heapBuffer = ByteBuffer.allocate(30);
+        heapBuffer.position(2);
+        CrockfordCodec.encode(TSID_VALUE_LONG, heapBuffer);
+        CrockfordCodec.encode(TSID_VALUE_LONG, heapBuffer);
+        Assertions.assertThat(heapBuffer.position()).isEqualTo(28);
+        Assertions.assertThat(new String(heapBuffer.array(), 15, 13, StandardCharsets.US_ASCII))
+                .isEqualTo(TSID_VALUE_STRING);
+        Assertions.assertThatExceptionOfType(BufferOverflowException.class)
+                .isThrownBy(() -> CrockfordCodec.encode(TSID_VALUE_LONG, heapBuffer));
+
+        final ByteBuffer directBuffer = ByteBuffer.allocateDirect(13);
+        CrockfordCodec.encode(TSID_VALUE_LONG, directBuffer);
+        Assertions.assertThat(directBuffer.hasRemaining()).isFalse();
+        directBuffer.flip();
+        Assertions.assertThat(StandardCharsets.US_ASCII.decode(directBuffer).toString()).isEqualTo(TSID_VALUE_STRING);
+
+        final ByteBuffer slicedBuffer = ByteBuffer.allocate(20);
+        slicedBuffer.position(5);
+        final ByteBuffer slice = slicedBuffer.slice();
+        CrockfordCodec.encode(TSID_VALUE_LONG, slice);
+        Assertions.assertThat(new String(slicedBuffer.array(), 5, 13, StandardCharsets.US_ASCII))
+                .isEqualTo(TSID_VALUE_STRING);
+
+        Assertions.assertThatExceptionOfType(ReadOnlyBufferException.class)
+                .isThrownBy(() -> CrockfordCodec.encode(TSID_VALUE_LONG, ByteBuffer.allocate(13).asReadOnlyBuffer()));
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testEncodeAppendable() throws IOException {
+        final StringBuilder destination = new StringBuilder("id=");
+        CrockfordCodec.encode(TSID_VALUE_LONG, destination);
+        Assertions.assertThat(destination).hasToString("id=" + TSID_VALUE_STRING);
+        Assertions.assertThatNullPointerException()
+                .isThrownBy(() -> CrockfordCodec.encode(TSID_VALUE_LONG, (Appendable) null));
+    }
+
+    @Test
+    void testCachedString() {
+        final Tsid id = Tsid.fromLong(TSID_VALUE_LONG);
+        final String first = id.asString();
+        Assertions.assertThat(first).isEqualTo(TSID_VALUE_STRING);
+        Assertions.assertThat(id.asString()).isSameAs(first);
+        Assertions.assertThat(id.toString()).isSameAs(first);
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testDecode() {
+        Assertions.assertThat(CrockfordCodec.decode("id=" + TSID_VALUE_STRING + ";", 3)).isEqualTo(TSID_VALUE_LONG);
+        Assertions.assertThat(CrockfordCodec.decode(new StringBuilder("09rgcpp1o8oo7"), 0)).isEqualTo(TSID_VALUE_LONG);
+        Assertions.assertThat(CrockfordCodec.decode("OIL0000000000", 0)).isEqualTo(CrockfordCodec.decode("0110000000000", 0));
+        final byte[] bytes = ("  " + TSID_VALUE_STRING).getBytes(StandardCharsets.US_ASCII);
+        Assertions.assertThat(CrockfordCodec.decode(bytes, 2)).isEqualTo(TSID_VALUE_LONG);
+
+        Assertions.assertThatNullPointerException().isThrownBy(() -> CrockfordCodec.decode((CharSequence) null, 0));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> CrockfordCodec.decode(TSID_VALUE_STRING, 1));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> CrockfordCodec.decode(bytes, -1));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> CrockfordCodec.decode("09RGCPPU08007", 0))
+                .withMessage("Invalid symbol: U");
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> CrockfordCodec.decode("09RGCPP10800\u00e9", 0));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> CrockfordCodec.decode("09RGCPP10800\u0137", 0));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> CrockfordCodec.decode(new byte[]{'0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', (byte) 0xC0}, 0));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> CrockfordCodec.decode("G000000000000", 0))
+                .withMessage("Value is below 0");
+    }
+
+    @Test
+    void testTryDecode() {
+        Assertions.assertThat(CrockfordCodec.tryDecode(TSID_VALUE_STRING, 0)).isEqualTo(TSID_VALUE_LONG);
+        Assertions.assertThat(CrockfordCodec.tryDecode(TSID_VALUE_STRING.getBytes(StandardCharsets.US_ASCII), 0))
+                .isEqualTo(TSID_VALUE_LONG);
+        Assertions.assertThat(CrockfordCodec.tryDecode("FZZZZZZZZZZZF", 0)).isEqualTo(Long.MAX_VALUE);
+        Assertions.assertThat(CrockfordCodec.tryDecode("0000000000000", 0)).isZero();
+        Assertions.assertThat(CrockfordCodec.tryDecode(TSID_VALUE_STRING, 1)).isEqualTo(CrockfordCodec.INVALID);
+        Assertions.assertThat(CrockfordCodec.tryDecode(TSID_VALUE_STRING, -1)).isEqualTo(CrockfordCodec.INVALID);
+        Assertions.assertThat(CrockfordCodec.tryDecode("09RGCPP1-8007", 0)).isEqualTo(CrockfordCodec.INVALID);
+        Assertions.assertThat(CrockfordCodec.tryDecode("G000000000000", 0)).isEqualTo(CrockfordCodec.INVALID);
+        Assertions.assertThat(CrockfordCodec.tryDecode("ZZZZZZZZZZZZZ", 0)).isEqualTo(CrockfordCodec.INVALID);
+    }
+
+    @Test
+    void testBulkRoundTrip() {
+        final Random random = new Random(42);
+        final long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong() & Long.MAX_VALUE;
+        }
+        values[0] = 0;
+        values[1] = Long.MAX_VALUE;
+        final byte[] encoded = new byte[values.length * CrockfordCodec.BULK_STRIDE + 1];
+        Assertions.assertThat(CrockfordCodec.encodeAll(values, 0, values.length, encoded, 1, (byte) '\n'))
+                .isEqualTo(values.length * CrockfordCodec.BULK_STRIDE);
+        for (int i = 0; i < values.length; i++) {
+            final int position = 1 + i * CrockfordCodec.BULK_STRIDE;
+            Assertions.assertThat(new String(encoded, position, CrockfordCodec.ENCODED_LENGTH, StandardCharsets.US_ASCII))
+                    .isEqualTo(CrockfordCodec.encode(values[i]));
+            Assertions.assertThat(encoded[position + CrockfordCodec.ENCODED_LENGTH]).isEqualTo((byte) '\n');
+        }
+
+        final long[] decoded = new long[values.length];
+        Assertions.assertThat(CrockfordCodec.decodeAll(encoded, 1, decoded, 0, values.length, (byte) '\n'))
+                .isEqualTo(values.length);
+        Assertions.assertThat(decoded).isEqualTo(values);
+
+        final byte[] withoutTrailingSeparator = new byte[2 * CrockfordCodec.BULK_STRIDE - 1];
+        System.arraycopy(encoded, 1, withoutTrailingSeparator, 0, withoutTrailingSeparator.length);
+        final long[] pair = new long[2];
+        Assertions.assertThat(CrockfordCodec.decodeAll(withoutTrailingSeparator, 0, pair, 0, 2, (byte) '\n'))
+                .isEqualTo(2);
+        Assertions.assertThat(pair).containsExactly(values[0], values[1]);
+    }
+
+    @Test
+    void testBulkDecodeFirstInvalid() {
+        final long[] values = new long[200];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = TSID_VALUE_LONG + i;
+        }
+        final byte[] encoded = new byte[values.length * CrockfordCodec.BULK_STRIDE];
+        CrockfordCodec.encodeAll(values, 0, values.length, encoded, 0, (byte) ',');
+        final long[] decoded = new long[values.length];
+
+        encoded[150 * CrockfordCodec.BULK_STRIDE + 4] = 'u';
+        encoded[170 * CrockfordCodec.BULK_STRIDE + 4] = 'u';
+        Assertions.assertThat(CrockfordCodec.decodeAll(encoded, 0, decoded, 0, values.length, (byte) ','))
+                .isEqualTo(150);
+        for (int i = 0; i < 150; i++) {
+            Assertions.assertThat(decoded[i]).isEqualTo(values[i]);
+        }
+
+        encoded[70 * CrockfordCodec.BULK_STRIDE + CrockfordCodec.ENCODED_LENGTH] = ';';
+        Assertions.assertThat(CrockfordCodec.decodeAll(encoded, 0, decoded, 0, values.length, (byte) ','))
+                .isEqualTo(70);
+
+        encoded[3 * CrockfordCodec.BULK_STRIDE] = 'Z';
+        Assertions.assertThat(CrockfordCodec.decodeAll(encoded, 0, decoded, 0, values.length, (byte) ','))
+                .isEqualTo(3);
+        Assertions.assertThat(CrockfordCodec.decodeAll(encoded, 0, decoded, 0, 3, (byte) ',')).isEqualTo(3);
+        Assertions.assertThat(CrockfordCodec.decodeAll(encoded, 0, decoded, 0, 0, (byte) ',')).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testBulkBounds() {
+        final long[] values = new long[4];
+        final byte[] encoded = new byte[4 * CrockfordCodec.BULK_STRIDE];
+        Assertions.assertThatNullPointerException()
+                .isThrownBy(() -> CrockfordCodec.encodeAll(null, 0, 0, encoded, 0, (byte) ','));
+        Assertions.assertThatNullPointerException()
+                .isThrownBy(() -> CrockfordCodec.decodeAll(encoded, 0, null, 0, 0, (byte) ','));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> CrockfordCodec.encodeAll(values, 1, 4, encoded, 0, (byte) ','));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> CrockfordCodec.encodeAll(values, 0, 4, encoded, 1, (byte) ','));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> CrockfordCodec.encodeAll(values, 0, -1, encoded, 0, (byte) ','));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> CrockfordCodec.decodeAll(encoded, 2, values, 0, 4, (byte) ','));
+        Assertions.assertThatNoException()
+                .isThrownBy(() -> CrockfordCodec.decodeAll(encoded, 1, values, 0, 4, (byte) ','));
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+final class StripedTsidGeneratorTest {
+
+    @Test
+    @SuppressWarnings("all")
+    void testCreateGenerator() {
+        final TsidConfiguration configuration = TsidConfiguration.builder()
+                .node(31)
+                .build();
+        Assertions.assertThatNullPointerException().isThrownBy(() -> StripedTsidGenerator.generator(null, 1));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> StripedTsidGenerator.generator(configuration, -1));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> StripedTsidGenerator.generator(configuration, 11));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> StripedTsidGenerator.generator(configuration, 6));
+        Assertions.assertThat(StripedTsidGenerator.generator(configuration, 5).stripes()).isEqualTo(32);
+        Assertions.assertThat(StripedTsidGenerator.generator(configuration, 0).stripes()).isEqualTo(1);
+    }
+
+    @Test
+    void testGenerate() {
+        final StripedTsidGenerator generator = StripedTsidGenerator.generator(TsidConfiguration.builder()
+                .node(5)
+                .build(), 4);
+        final long value = generator.generateLong();
+        Assertions.assertThat(((value >> 12) & 0x3FF) >> 4).isEqualTo(5);
+        Assertions.assertThat(generator.generate()).isNotNull();
+        final long[] ids = new long[5000];
+        generator.fill(ids);
+        for (int i = 1; i < ids.length; i++) {
+            Assertions.assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+        }
+    }
+
+    @Test
+    void testGenerateNoCollision() throws InterruptedException {
+        final int maxThreadCount = 16;
+        final int maxTsidCount = 10000;
+        final StripedTsidGenerator generator = StripedTsidGenerator.generator(TsidConfiguration.builder()
+                .node(7)
+                .build(), 3);
+        final Set<Long> resultTsidHolder = ConcurrentHashMap.newKeySet();
+        final Set<Long> nodes = ConcurrentHashMap.newKeySet();
+        final CountDownLatch countDownLatch = new CountDownLatch(maxThreadCount);
+        final List<Thread> threads = new LinkedList<>();
+        for (int i = 0; i < maxThreadCount; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    final Set<Long> result = new HashSet<>();
+                    for (int j = 0; j < maxTsidCount; j++) {
+                        final long value = generator.generateLong();
+                        result.add(value);
+                        nodes.add((value >> 12) & 0x3FF);
+                    }
+                    resultTsidHolder.addAll(result);
+                } finally {
+                    countDownLatch.countDown();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        countDownLatch.await();
+        Assertions.assertThat(resultTsidHolder).hasSize(maxThreadCount * maxTsidCount);
+        Assertions.assertThat(nodes).hasSizeGreaterThan(1).allMatch(node -> (node >> 3) == 7);
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+final class TsidArraysTest {
+
+    @Test
+    @SuppressWarnings("all")
+    void testBounds() {
+        final long[] values = {1, 3, 3, 3, 7, 9};
+        Assertions.assertThat(TsidArrays.lowerBound(values, 0)).isZero();
+        Assertions.assertThat(TsidArrays.lowerBound(values, 3)).isEqualTo(1);
+        Assertions.assertThat(TsidArrays.upperBound(values, 3)).isEqualTo(4);
+        Assertions.assertThat(TsidArrays.lowerBound(values, 4)).isEqualTo(4);
+        Assertions.assertThat(TsidArrays.upperBound(values, 4)).isEqualTo(4);
+        Assertions.assertThat(TsidArrays.lowerBound(values, 10)).isEqualTo(6);
+        Assertions.assertThat(TsidArrays.upperBound(values, 9)).isEqualTo(6);
+        Assertions.assertThat(TsidArrays.lowerBound(values, 2, 5, 1)).isEqualTo(2);
+        Assertions.assertThat(TsidArrays.upperBound(values, 2, 5, 9)).isEqualTo(5);
+        Assertions.assertThat(TsidArrays.lowerBound(new long[0], 1)).isZero();
+
+        Assertions.assertThatNullPointerException().isThrownBy(() -> TsidArrays.lowerBound(null, 1));
+        Assertions.assertThatNullPointerException().isThrownBy(() -> TsidArrays.upperBound(null, 0, 0, 1));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> TsidArrays.lowerBound(values, 4, 3, 1));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> TsidArrays.upperBound(values, 0, 7, 1));
+    }
+
+    @Test
+    void testTimeWindow() {
+        final TsidConfiguration configuration = TsidConfiguration.builder()
+                .clock(new TsidClock() {
+                    private long millis = 1_700_000_000_000L;
+
+                    @Override
+                    public long millis() {
+                        return millis++;
+                    }
+                })
+                .build();
+        final TsidGenerator generator = TsidGenerator.generator(configuration);
+        final long[] values = new long[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = generator.generateLong();
+        }
+        final Instant from = Instant.ofEpochMilli(1_700_000_000_010L);
+        final Instant to = Instant.ofEpochMilli(1_700_000_000_019L);
+        final int fromIndex = TsidArrays.lowerBound(values, Tsid.lowerBound(from, configuration).asLong());
+        final int toIndex = TsidArrays.upperBound(values, Tsid.upperBound(to, configuration).asLong());
+        Assertions.assertThat(fromIndex).isEqualTo(10);
+        Assertions.assertThat(toIndex).isEqualTo(20);
+    }
+
+    @Test
+    void testSort() {
+        final SplittableRandom random = new SplittableRandom(42);
+        for (int length : new int[]{0, 1, 100, 1_000, 100_000}) {
+            final long[] values = random.longs(length).toArray();
+            final long[] expected = values.clone();
+            Arrays.sort(expected);
+            final long[] parallel = values.clone();
+            TsidArrays.sort(values);
+            TsidArrays.parallelSort(parallel);
+            Assertions.assertThat(values).isEqualTo(expected);
+            Assertions.assertThat(parallel).isEqualTo(expected);
+        }
+
+        // A few ascending runs are merged instead.
+        final long[] runs = random.longs(100_000).toArray();
+        for (int run = 0; run < 5; run++) {
+            Arrays.sort(runs, run * 20_000, (run + 1) * 20_000);
+        }
+        final long[] expectedRuns = runs.clone();
+        Arrays.sort(expectedRuns);
+        final long[] parallelRuns = runs.clone();
+        TsidArrays.sort(runs);
+        TsidArrays.parallelSort(parallelRuns);
+        Assertions.assertThat(runs).isEqualTo(expectedRuns);
+        Assertions.assertThat(parallelRuns).isEqualTo(expectedRuns);
+
+        final long[] constant = new long[1_000];
+        Arrays.fill(constant, 7);
+        TsidArrays.sort(constant);
+        Assertions.assertThat(constant).containsOnly(7);
+
+        final long[] range = {9, 8, 7, 3, 2, 1, 0};
+        TsidArrays.sort(range, 1, 6);
+        Assertions.assertThat(range).containsExactly(9, 1, 2, 3, 7, 8, 0);
+
+        Assertions.assertThatNullPointerException().isThrownBy(() -> TsidArrays.sort((long[]) null));
+        Assertions.assertThatNullPointerException().isThrownBy(() -> TsidArrays.parallelSort((Tsid[]) null));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> TsidArrays.parallelSort(range, 0, 8));
+    }
+
+    @Test
+    void testSortShards() {
+        // Ascending shards of several nodes, concatenated.
+        final int shardLength = 50_000;
+        final long[] values = new long[shardLength * 4];
+        for (int node = 0; node < 4; node++) {
+            TsidGenerator.generator(TsidConfiguration.builder().node(node).build())
+                    .fill(values, node * shardLength, shardLength);
+        }
+        final long[] expected = values.clone();
+        Arrays.sort(expected);
+        final long[] parallel = values.clone();
+        TsidArrays.sort(values);
+        TsidArrays.parallelSort(parallel);
+        Assertions.assertThat(values).isEqualTo(expected);
+        Assertions.assertThat(parallel).isEqualTo(expected);
+
+        final Tsid[] tsids = new Tsid[values.length];
+        for (int i = 0; i < tsids.length; i++) {
+            tsids[i] = Tsid.fromLong(expected[(i * 7919) % expected.length]);
+        }
+        final Tsid[] parallelTsids = tsids.clone();
+        TsidArrays.sort(tsids);
+        TsidArrays.parallelSort(parallelTsids);
+        for (int i = 0; i < tsids.length; i++) {
+            Assertions.assertThat(tsids[i].asLong()).isEqualTo(expected[i]);
+            Assertions.assertThat(parallelTsids[i]).isSameAs(tsids[i]);
+        }
+
+        final Tsid[] shards = new Tsid[values.length];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = tsids[((i / shardLength + 1) % 4) * shardLength + i % shardLength];
+        }
+        TsidArrays.sort(shards);
+        Assertions.assertThat(shards).isEqualTo(tsids);
+
+        final Tsid[] small = {Tsid.fromLong(3), Tsid.fromLong(1), Tsid.fromLong(2)};
+        TsidArrays.sort(small);
+        Assertions.assertThat(small).containsExactly(Tsid.fromLong(1), Tsid.fromLong(2), Tsid.fromLong(3));
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+final class TsidCacheTest {
+
+    private static final String TSID_VALUE_STRING = "09RGCPP108007";
+
+    @Test
+    void testBuilder() {
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> TsidCache.builder().capacity(0).build());
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> TsidCache.builder().ways(0).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidCache.builder().capacity(4).ways(8).build());
+        Assertions.assertThat(TsidCache.builder().capacity(1000).build().capacity()).isEqualTo(1024);
+        Assertions.assertThat(TsidCache.builder().capacity(3).ways(3).build().capacity()).isEqualTo(4);
+        Assertions.assertThat(TsidCache.builder().build().isEnabled()).isTrue();
+        Assertions.assertThat(TsidCache.builder().enabled(false).build().isEnabled()).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testFromString() {
+        final TsidCache cache = TsidCache.builder().build();
+        final Tsid first = cache.fromString(TSID_VALUE_STRING);
+        Assertions.assertThat(first).isEqualTo(Tsid.fromString(TSID_VALUE_STRING));
+        Assertions.assertThat(cache.fromString(TSID_VALUE_STRING)).isSameAs(first);
+        Assertions.assertThat(cache.fromString(new String(TSID_VALUE_STRING.toCharArray()))).isSameAs(first);
+        Assertions.assertThat(cache.hits()).isEqualTo(2);
+        Assertions.assertThat(cache.misses()).isEqualTo(1);
+
+        Assertions.assertThatNullPointerException().isThrownBy(() -> cache.fromString(null));
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> cache.fromString("ABCD$FGHIJKLM"));
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> cache.fromString("ABCD$FGHIJKLM"));
+        Assertions.assertThat(cache.misses()).isEqualTo(3);
+
+        cache.clear();
+        Assertions.assertThat(cache.fromString(TSID_VALUE_STRING)).isNotSameAs(first).isEqualTo(first);
+        Assertions.assertThat(cache.misses()).isEqualTo(4);
+    }
+
+    @Test
+    void testDisabled() {
+        final TsidCache cache = TsidCache.builder().enabled(false).build();
+        final Tsid first = cache.fromString(TSID_VALUE_STRING);
+        Assertions.assertThat(cache.fromString(TSID_VALUE_STRING)).isNotSameAs(first).isEqualTo(first);
+        Assertions.assertThat(cache.hits()).isZero();
+        Assertions.assertThat(cache.misses()).isZero();
+
+        cache.setEnabled(true);
+        final Tsid cached = cache.fromString(TSID_VALUE_STRING);
+        Assertions.assertThat(cache.fromString(TSID_VALUE_STRING)).isSameAs(cached);
+        Assertions.assertThat(cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void testEviction() {
+        final TsidCache cache = TsidCache.builder().capacity(64).ways(4).build();
+        final TsidGenerator generator = TsidGenerator.defaultGenerator();
+        final Tsid hot = generator.generate();
+        final String hotString = hot.asString();
+        cache.fromString(hotString);
+        for (int i = 0; i < 10_000; i++) {
+            final String value = generator.generate().asString();
+            Assertions.assertThat(cache.fromString(value).asString()).isEqualTo(value);
+            Assertions.assertThat(cache.fromString(hotString)).isEqualTo(hot);
+        }
+        Assertions.assertThat(cache.hits()).isGreaterThan(9_000);
+    }
+
+    @Test
+    void testConcurrentEviction() throws InterruptedException {
+        final TsidCache cache = TsidCache.builder().capacity(16).ways(2).build();
+        final TsidGenerator generator = TsidGenerator.defaultGenerator();
+        final String[] values = new String[256];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = generator.generate().asString();
+        }
+        final int threadCount = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<String> mismatch = new AtomicReference<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final int offset = t;
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 100_000; i++) {
+                    final String value = values[(i * 7 + offset) % values.length];
+                    if (!cache.fromString(value).asString().equals(value)) {
+                        mismatch.set(value);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertThat(mismatch.get()).isNull();
+        Assertions.assertThat(cache.hits() + cache.misses()).isEqualTo(threadCount * 100_000L);
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+final class TsidClockTest {
+
+    @Test
+    void testSystemClock() {
+        final long before = System.currentTimeMillis();
+        final long now = TsidClock.systemClock().millis();
+        Assertions.assertThat(now).isBetween(before, System.currentTimeMillis());
+        Assertions.assertThat(TsidClock.systemClock()).isSameAs(TsidClock.systemClock());
+    }
+
+    @Test
+    void testCachedClock() throws InterruptedException {
+        final TsidClock clock = TsidClock.cachedClock();
+        Assertions.assertThat(clock).isSameAs(TsidClock.cachedClock());
+        Assertions.assertThat(clock.millis()).isCloseTo(System.currentTimeMillis(), Assertions.within(50L));
+        final long first = clock.millis();
+        Thread.sleep(20);
+        Assertions.assertThat(clock.millis()).isGreaterThan(first);
+    }
+
+    @Test
+    void testMonotonicClock() throws InterruptedException {
+        final TsidClock clock = TsidClock.monotonicClock();
+        Assertions.assertThat(clock).isSameAs(TsidClock.monotonicClock());
+        Assertions.assertThat(clock.millis()).isCloseTo(System.currentTimeMillis(), Assertions.within(50L));
+        final long first = clock.millis();
+        Thread.sleep(20);
+        Assertions.assertThat(clock.millis()).isGreaterThanOrEqualTo(first + 20);
+    }
+
+    @Test
+    void testDeterministicClock() {
+        final long epoch = 96024;
+        final AtomicLong time = new AtomicLong(1_000_000);
+        final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder()
+                .node(96)
+                .epoch(epoch)
+                .clock(time::get)
+                .build());
+
+        final long first = generator.generateLong();
+        Assertions.assertThat((first >> 22) + epoch).isEqualTo(1_000_000);
+        Assertions.assertThat((generator.generateLong() >> 22) + epoch).isEqualTo(1_000_000);
+
+        time.set(1_000_005);
+        final long afterTick = generator.generateLong();
+        Assertions.assertThat((afterTick >> 22) + epoch).isEqualTo(1_000_005);
+
+        time.set(999_000);
+        final long afterRegression = generator.generateLong();
+        Assertions.assertThat((afterRegression >> 22) + epoch).isEqualTo(1_000_005);
+        Assertions.assertThat(afterRegression).isGreaterThan(afterTick);
+    }
+
+    @Test
+    void testThreadGeneratorKeepsClock() {
+        final TsidConfiguration configuration = TsidConfiguration.builder()
+                .epoch(0)
+                .clock(() -> 1_000_000)
+                .build();
+        final long value = TsidGenerator.threadGenerator(configuration).generateLong();
+        Assertions.assertThat(value >> 22).isEqualTo(1_000_000);
+    }
+}
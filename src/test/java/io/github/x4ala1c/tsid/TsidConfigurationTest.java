@@ -31,6 +31,22 @@ final class TsidConfigurationTest {
                 .isThrownBy(() -> TsidConfiguration.builder()
                         .epoch(2199023255553L)
                         .build());
+        Assertions.assertThatNullPointerException()
+                .isThrownBy(() -> TsidConfiguration.builder()
+                        .clock(null)
+                        .build());
+        Assertions.assertThatNullPointerException()
+                .isThrownBy(() -> TsidConfiguration.builder()
+                        .sequenceSeed(null)
+                        .build());
+        Assertions.assertThatNullPointerException()
+                .isThrownBy(() -> TsidConfiguration.builder()
+                        .overflowPolicy(null)
+                        .build());
+        Assertions.assertThatNullPointerException()
+                .isThrownBy(() -> TsidConfiguration.builder()
+                        .clockRegressionPolicy(null)
+                        .build());
         Assertions.assertThatNoException()
                 .isThrownBy(() -> TsidConfiguration.builder()
                         .node(0)
@@ -53,6 +69,42 @@ final class TsidConfigurationTest {
         Assertions.assertThat(configuration.getEpoch()).isEqualTo(69420);
     }
 
+    @Test
+    void testGetClock() {
+        Assertions.assertThat(configuration.getClock()).isSameAs(TsidClock.systemClock());
+        final TsidClock clock = () -> 0;
+        Assertions.assertThat(TsidConfiguration.builder().clock(clock).build().getClock()).isSameAs(clock);
+    }
+
+    @Test
+    void testGetSequenceSeed() {
+        Assertions.assertThat(configuration.getSequenceSeed()).isEqualTo(TsidSequenceSeed.SECURE_RANDOM);
+        Assertions.assertThat(TsidConfiguration.builder()
+                .sequenceSeed(TsidSequenceSeed.ZERO)
+                .build()
+                .getSequenceSeed()).isEqualTo(TsidSequenceSeed.ZERO);
+    }
+
+    @Test
+    void testToBuilder() {
+        final TsidClock clock = () -> 0;
+        final TsidConfiguration source = TsidConfiguration.builder()
+                .node(96)
+                .epoch(96024)
+                .clock(clock)
+                .sequenceSeed(TsidSequenceSeed.THREAD_LOCAL_RANDOM)
+                .overflowPolicy(TsidDriftPolicy.await())
+                .clockRegressionPolicy(TsidDriftPolicy.failFast())
+                .build();
+        final TsidConfiguration copy = source.toBuilder().node(4).build();
+        Assertions.assertThat(copy.getNode()).isEqualTo(4);
+        Assertions.assertThat(copy.getEpoch()).isEqualTo(96024);
+        Assertions.assertThat(copy.getClock()).isSameAs(clock);
+        Assertions.assertThat(copy.getSequenceSeed()).isEqualTo(TsidSequenceSeed.THREAD_LOCAL_RANDOM);
+        Assertions.assertThat(copy.getOverflowPolicy()).isSameAs(TsidDriftPolicy.await());
+        Assertions.assertThat(copy.getClockRegressionPolicy()).isSameAs(TsidDriftPolicy.failFast());
+    }
+
     @Test
     @SetEnvironmentVariable(key = "TSID_NODE", value = "96")
     @SetEnvironmentVariable(key = "TSID_EPOCH", value = "96024")
@@ -0,0 +1,126 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class TsidDriftPolicyTest {
+
+    private static final int SEQUENCE_SIZE = TsidConfiguration.MAX_SEQUENCE + 1;
+
+    private final AtomicLong time = new AtomicLong(1_000_000);
+
+    private TsidGenerator generator(TsidDriftPolicy overflowPolicy, TsidDriftPolicy clockRegressionPolicy) {
+        return TsidGenerator.generator(TsidConfiguration.builder()
+                .epoch(0)
+                .clock(time::get)
+                .sequenceSeed(TsidSequenceSeed.ZERO)
+                .overflowPolicy(overflowPolicy)
+                .clockRegressionPolicy(clockRegressionPolicy)
+                .build());
+    }
+
+    private void advanceTimeLater(long timestamp) {
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        executor.schedule(() -> time.set(timestamp), 50, TimeUnit.MILLISECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    void testCreatePolicy() {
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> TsidDriftPolicy.borrow(-1));
+        Assertions.assertThat(TsidDriftPolicy.borrow(5).getMaxDriftMillis()).isEqualTo(5);
+        Assertions.assertThat(TsidDriftPolicy.borrow().getMaxDriftMillis()).isEqualTo(Long.MAX_VALUE);
+        Assertions.assertThat(TsidDriftPolicy.await().getMaxDriftMillis()).isZero();
+        Assertions.assertThat(TsidDriftPolicy.failFast().isFailFast()).isTrue();
+        Assertions.assertThat(TsidDriftPolicy.await().isFailFast()).isFalse();
+    }
+
+    @Test
+    void testOverflowUnboundedBorrow() {
+        final TsidGenerator generator = generator(TsidDriftPolicy.borrow(), TsidDriftPolicy.borrow());
+        generator.fill(new long[SEQUENCE_SIZE * 3]);
+        Assertions.assertThat(generator.generateLong() >> 22).isEqualTo(1_000_003);
+        Assertions.assertThat(generator.driftMillis()).isEqualTo(3);
+        Assertions.assertThat(generator.waitedNanos()).isZero();
+    }
+
+    @Test
+    void testOverflowBoundedBorrow() {
+        final TsidGenerator generator = generator(TsidDriftPolicy.borrow(2), TsidDriftPolicy.borrow());
+        generator.fill(new long[SEQUENCE_SIZE * 3]);
+        Assertions.assertThat(generator.driftMillis()).isEqualTo(2);
+        advanceTimeLater(1_000_001);
+        Assertions.assertThat(generator.generateLong() >> 22).isEqualTo(1_000_003);
+        Assertions.assertThat(generator.waitedNanos()).isPositive();
+    }
+
+    @Test
+    void testOverflowAwait() {
+        final TsidGenerator generator = generator(TsidDriftPolicy.await(), TsidDriftPolicy.borrow());
+        generator.fill(new long[SEQUENCE_SIZE]);
+        Assertions.assertThat(generator.driftMillis()).isZero();
+        advanceTimeLater(1_000_001);
+        Assertions.assertThat(generator.generateLong() >> 22).isEqualTo(1_000_001);
+        Assertions.assertThat(time.get()).isEqualTo(1_000_001);
+        Assertions.assertThat(generator.waitedNanos()).isPositive();
+    }
+
+    @Test
+    void testOverflowFailFast() {
+        final TsidGenerator generator = generator(TsidDriftPolicy.failFast(), TsidDriftPolicy.borrow());
+        Assertions.assertThatIllegalStateException().isThrownBy(() -> generator.generate(SEQUENCE_SIZE + 1));
+        generator.fill(new long[SEQUENCE_SIZE]);
+        Assertions.assertThatIllegalStateException().isThrownBy(generator::generateLong);
+        time.incrementAndGet();
+        Assertions.assertThat(generator.generateLong() >> 22).isEqualTo(1_000_001);
+    }
+
+    @Test
+    void testClockRegressionUnboundedBorrow() {
+        final TsidGenerator generator = generator(TsidDriftPolicy.borrow(), TsidDriftPolicy.borrow());
+        final long first = generator.generateLong();
+        time.set(999_000);
+        final long second = generator.generateLong();
+        Assertions.assertThat(second >> 22).isEqualTo(1_000_000);
+        Assertions.assertThat(second).isGreaterThan(first);
+        Assertions.assertThat(generator.driftMillis()).isEqualTo(1000);
+    }
+
+    @Test
+    void testClockRegressionBoundedBorrow() {
+        final TsidGenerator generator = generator(TsidDriftPolicy.borrow(), TsidDriftPolicy.borrow(10));
+        generator.generateLong();
+        time.set(999_995);
+        Assertions.assertThat(generator.generateLong() >> 22).isEqualTo(1_000_000);
+        Assertions.assertThat(generator.waitedNanos()).isZero();
+        time.set(999_000);
+        advanceTimeLater(999_990);
+        Assertions.assertThat(generator.generateLong() >> 22).isEqualTo(1_000_000);
+        Assertions.assertThat(generator.waitedNanos()).isPositive();
+    }
+
+    @Test
+    void testClockRegressionAwait() {
+        final TsidGenerator generator = generator(TsidDriftPolicy.borrow(), TsidDriftPolicy.await());
+        generator.generateLong();
+        time.set(999_000);
+        advanceTimeLater(1_000_002);
+        Assertions.assertThat(generator.generateLong() >> 22).isEqualTo(1_000_002);
+        Assertions.assertThat(generator.waitedNanos()).isPositive();
+    }
+
+    @Test
+    void testClockRegressionFailFast() {
+        final TsidGenerator generator = generator(TsidDriftPolicy.borrow(), TsidDriftPolicy.failFast());
+        generator.generateLong();
+        time.set(999_000);
+        Assertions.assertThatIllegalStateException().isThrownBy(generator::generateLong);
+        time.set(1_000_000);
+        Assertions.assertThat(generator.generateLong() >> 22).isEqualTo(1_000_000);
+    }
+}
@@ -6,7 +6,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -174,4 +176,66 @@ final class TsidGeneratorCollisionTest {
         });
         Assertions.assertThat(resultTsidHolder).size().isEqualTo(maxThreadCount * maxTsidCount);
     }
+
+    private static final class ConcurrentTestThread extends Thread {
+
+        private final TsidGenerator generator;
+        private final long[] result;
+        private final CountDownLatch startLatch;
+        private final CountDownLatch countDownLatch;
+        private volatile Exception exception;
+
+        private ConcurrentTestThread(TsidGenerator generator, int maxIdsCount, CountDownLatch startLatch,
+                                     CountDownLatch countDownLatch) {
+            this.generator = generator;
+            this.result = new long[maxIdsCount];
+            this.startLatch = startLatch;
+            this.countDownLatch = countDownLatch;
+        }
+
+        @Override
+        public void run() {
+            try {
+                startLatch.await();
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = generator.generate().asLong();
+                }
+            } catch (Exception e) {
+                this.exception = e;
+            } finally {
+                countDownLatch.countDown();
+            }
+        }
+    }
+
+    // Only checks uniqueness and per-thread ordering. Scaling with the number of threads is measured by
+    // TsidGeneratorBenchmark in the benchmarks module.
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 4, 8, 16, 32, 64})
+    void testGeneratorUnderConcurrency(int maxThreadCount) throws InterruptedException {
+        final int maxTsidCount = 10000;
+        final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.fromEnvironment());
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch countDownLatch = new CountDownLatch(maxThreadCount);
+        final List<ConcurrentTestThread> threads = new LinkedList<>();
+        for (int i = 0; i < maxThreadCount; i++) {
+            threads.add(new ConcurrentTestThread(generator, maxTsidCount, startLatch, countDownLatch));
+        }
+        threads.forEach(Thread::start);
+        startLatch.countDown();
+        countDownLatch.await();
+        final long[] allIds = new long[maxThreadCount * maxTsidCount];
+        int offset = 0;
+        for (ConcurrentTestThread thread : threads) {
+            if (thread.exception != null) {
+                Assertions.fail(thread.exception.getMessage(), thread.exception);
+            }
+            for (int i = 1; i < thread.result.length; i++) {
+                Assertions.assertThat(thread.result[i]).isGreaterThan(thread.result[i - 1]);
+            }
+            System.arraycopy(thread.result, 0, allIds, offset, thread.result.length);
+            offset += thread.result.length;
+        }
+        Assertions.assertThat(Arrays.stream(allIds).distinct().count()).isEqualTo(allIds.length);
+    }
 }
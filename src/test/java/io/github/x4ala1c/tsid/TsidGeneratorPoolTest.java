@@ -0,0 +1,89 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+final class TsidGeneratorPoolTest {
+
+    private static long nodeOf(long value) {
+        return (value >> 12) & 0x3FF;
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testCreatePool() {
+        final TsidConfiguration configuration = TsidConfiguration.fromEnvironment();
+        Assertions.assertThatNullPointerException().isThrownBy(() -> TsidGeneratorPool.pool(null));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidGeneratorPool.pool(configuration, -1, 10));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidGeneratorPool.pool(configuration, 0, 1024));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidGeneratorPool.pool(configuration, 10, 9));
+        Assertions.assertThat(TsidGeneratorPool.pool(configuration).available()).isEqualTo(1024);
+    }
+
+    @Test
+    void testCurrentIsStablePerThread() {
+        final TsidGeneratorPool pool = TsidGeneratorPool.pool(TsidConfiguration.fromEnvironment(), 100, 103);
+        final TsidGenerator generator = pool.current();
+        Assertions.assertThat(pool.current()).isSameAs(generator);
+        Assertions.assertThat(nodeOf(pool.generateLong())).isEqualTo(100);
+        Assertions.assertThat(pool.generate()).isNotNull();
+        Assertions.assertThat(pool.available()).isEqualTo(3);
+        pool.release();
+        Assertions.assertThat(pool.available()).isEqualTo(4);
+        pool.release();
+        Assertions.assertThat(pool.available()).isEqualTo(4);
+    }
+
+    @Test
+    void testUniqueNodePerThread() throws InterruptedException {
+        final int maxThreadCount = 8;
+        final TsidGeneratorPool pool = TsidGeneratorPool.pool(TsidConfiguration.fromEnvironment(), 0, 7);
+        final Set<Long> nodes = ConcurrentHashMap.newKeySet();
+        final CountDownLatch leasedLatch = new CountDownLatch(maxThreadCount);
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        final List<Thread> threads = new LinkedList<>();
+        for (int i = 0; i < maxThreadCount; i++) {
+            threads.add(new Thread(() -> {
+                nodes.add(nodeOf(pool.generateLong()));
+                leasedLatch.countDown();
+                try {
+                    releaseLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        leasedLatch.await();
+        Assertions.assertThat(nodes).hasSize(maxThreadCount);
+        Assertions.assertThat(pool.available()).isZero();
+        Assertions.assertThatIllegalStateException().isThrownBy(pool::current);
+        releaseLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertThat(pool.generate()).isNotNull();
+    }
+
+    @Test
+    void testDeadThreadNodeIsReclaimed() throws InterruptedException {
+        final TsidGeneratorPool pool = TsidGeneratorPool.pool(TsidConfiguration.fromEnvironment(), 5, 5);
+        final AtomicReference<Long> lastValue = new AtomicReference<>();
+        final Thread thread = new Thread(() -> lastValue.set(pool.generateLong()));
+        thread.start();
+        thread.join();
+        final long value = pool.generateLong();
+        Assertions.assertThat(nodeOf(value)).isEqualTo(5);
+        Assertions.assertThat(value).isGreaterThan(lastValue.get());
+    }
+}
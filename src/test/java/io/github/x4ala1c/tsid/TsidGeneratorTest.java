@@ -2,9 +2,12 @@ package io.github.x4ala1c.tsid;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.junitpioneer.jupiter.SetEnvironmentVariable;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.time.Instant;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
@@ -102,4 +105,85 @@ final class TsidGeneratorTest {
             return null;
         };
     }
+
+    @Test
+    void testGenerateBatch() {
+        final TsidConfiguration configuration = TsidConfiguration.builder()
+                .node(96)
+                .epoch(96024)
+                .build();
+        final TsidGenerator generator = TsidGenerator.generator(configuration);
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> generator.generate(-1));
+        Assertions.assertThat(generator.generate(0)).isEmpty();
+
+        final Tsid[] ids = generator.generate(10000);
+        Assertions.assertThat(ids).hasSize(10000).isSorted().doesNotHaveDuplicates();
+        for (Tsid id : ids) {
+            Assertions.assertThat((id.asLong() >> 12) & 0x3FF).isEqualTo(96);
+        }
+        Assertions.assertThat(ids[ids.length - 1].asLong() >> 22).isGreaterThan(ids[0].asLong() >> 22);
+        Assertions.assertThat(generator.generate()).isGreaterThan(ids[ids.length - 1]);
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testFill() {
+        final TsidGenerator generator = TsidGenerator.defaultGenerator();
+        Assertions.assertThatNullPointerException().isThrownBy(() -> generator.fill(null));
+        Assertions.assertThatNullPointerException().isThrownBy(() -> generator.fill(null, 0, 0));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> generator.fill(new long[10], -1, 5));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> generator.fill(new long[10], 6, 5));
+
+        final long[] ids = new long[10002];
+        generator.fill(ids, 1, 10000);
+        Assertions.assertThat(ids[0]).isZero();
+        Assertions.assertThat(ids[10001]).isZero();
+        for (int i = 2; i <= 10000; i++) {
+            Assertions.assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+        }
+
+        final long[] nextIds = new long[100];
+        generator.fill(nextIds);
+        Assertions.assertThat(nextIds[0]).isGreaterThan(ids[10000]);
+    }
+
+    @Test
+    void testGenerateLong() {
+        final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder()
+                .node(96)
+                .epoch(96024)
+                .build());
+        final long first = generator.generateLong();
+        final long second = generator.generateLong();
+        Assertions.assertThat(first).isNotNegative();
+        Assertions.assertThat(second).isGreaterThan(first);
+        Assertions.assertThat((first >> 12) & 0x3FF).isEqualTo(96);
+        Assertions.assertThat(generator.generate().asLong()).isGreaterThan(second);
+        Assertions.assertThat(TsidGenerator.globalGenerateLong()).isNotNegative();
+    }
+
+    @Test
+    void testGenerateLongDoesNotAllocate() {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        Assumptions.assumeTrue(allocationBean.isThreadAllocatedMemorySupported()
+                && allocationBean.isThreadAllocatedMemoryEnabled());
+        final TsidGenerator generator = TsidGenerator.defaultGenerator();
+        final int maxTsidCount = 1_000_000;
+        long checksum = 0;
+        for (int i = 0; i < maxTsidCount; i++) {
+            checksum += generator.generateLong();
+        }
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < maxTsidCount; i++) {
+            checksum += generator.generateLong();
+        }
+        final long allocatedAfter = allocationBean.getThreadAllocatedBytes(threadId);
+        Assertions.assertThat(checksum).isNotZero();
+        Assertions.assertThat((allocatedAfter - allocatedBefore) / maxTsidCount).isZero();
+    }
 }
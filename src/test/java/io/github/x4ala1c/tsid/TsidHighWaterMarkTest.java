@@ -0,0 +1,138 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class TsidHighWaterMarkTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @SuppressWarnings("all")
+    void testOpen() throws IOException {
+        final Path file = directory.resolve("tsid.hwm");
+        Assertions.assertThatNullPointerException().isThrownBy(() -> TsidHighWaterMark.open(null));
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> TsidHighWaterMark.open(file, 0));
+        try (TsidHighWaterMark highWaterMark = TsidHighWaterMark.open(file, 500)) {
+            Assertions.assertThat(highWaterMark.markMillis()).isZero();
+            Assertions.assertThat(highWaterMark.leaseMillis()).isEqualTo(500);
+            Assertions.assertThat(highWaterMark.extend(1_000)).isEqualTo(1_500);
+            Assertions.assertThat(highWaterMark.extend(1_200)).isEqualTo(1_500);
+        }
+        try (TsidHighWaterMark highWaterMark = TsidHighWaterMark.open(file)) {
+            Assertions.assertThat(highWaterMark.markMillis()).isEqualTo(1_500);
+        }
+
+        try (TsidHighWaterMark highWaterMark = TsidHighWaterMark.open(file)) {
+            Assertions.assertThatIOException().isThrownBy(() -> TsidHighWaterMark.open(file))
+                    .withMessageContaining("already open");
+            Assertions.assertThat(highWaterMark.extend(2_000)).isEqualTo(3_000);
+            highWaterMark.close();
+            Assertions.assertThat(highWaterMark.extend(2_500)).isEqualTo(3_000);
+            Assertions.assertThatIllegalStateException().isThrownBy(() -> highWaterMark.extend(3_500));
+        }
+        try (TsidHighWaterMark highWaterMark = TsidHighWaterMark.open(file)) {
+            Assertions.assertThat(highWaterMark.markMillis()).isEqualTo(3_000);
+        }
+
+        final Path invalid = directory.resolve("invalid.hwm");
+        Files.write(invalid, new byte[16]);
+        Assertions.assertThatIOException().isThrownBy(() -> TsidHighWaterMark.open(invalid));
+        Files.write(invalid, new byte[3]);
+        Assertions.assertThatIOException().isThrownBy(() -> TsidHighWaterMark.open(invalid));
+    }
+
+    @Test
+    void testResumeAboveMark() throws IOException {
+        final Path file = directory.resolve("tsid.hwm");
+        final AtomicLong millis = new AtomicLong(1_700_000_000_000L);
+        long lastValue;
+        try (TsidHighWaterMark highWaterMark = TsidHighWaterMark.open(file, 100)) {
+            final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder()
+                    .clock(millis::get)
+                    .highWaterMark(highWaterMark)
+                    .build());
+            generator.generateLong();
+            Assertions.assertThat(highWaterMark.markMillis()).isEqualTo(1_700_000_000_101L);
+            millis.addAndGet(50);
+            generator.generateLong();
+            Assertions.assertThat(highWaterMark.markMillis()).isEqualTo(1_700_000_000_101L);
+            millis.addAndGet(60);
+            lastValue = generator.generateLong();
+            Assertions.assertThat(highWaterMark.markMillis()).isEqualTo(1_700_000_000_211L);
+        }
+
+        // Restarts with the clock set back, within the lease.
+        millis.set(1_700_000_000_000L);
+        try (TsidHighWaterMark highWaterMark = TsidHighWaterMark.open(file, 100)) {
+            final TsidConfiguration configuration = TsidConfiguration.builder()
+                    .clock(millis::get)
+                    .highWaterMark(highWaterMark)
+                    .build();
+            final TsidGenerator generator = TsidGenerator.generator(configuration);
+            final long firstValue = generator.generateLong();
+            Assertions.assertThat(firstValue).isGreaterThan(lastValue);
+            Assertions.assertThat(Tsid.timestampOf(firstValue, configuration)).isEqualTo(1_700_000_000_211L);
+            Assertions.assertThat(highWaterMark.markMillis()).isEqualTo(1_700_000_000_312L);
+        }
+    }
+
+    @Test
+    void testRestartWithinLease() throws IOException {
+        final Path file = directory.resolve("tsid.hwm");
+        final AtomicLong millis = new AtomicLong(1_700_000_000_000L);
+        final TsidDriftPolicy[] overflowPolicies = {TsidDriftPolicy.failFast(), TsidDriftPolicy.borrow(10)};
+        long lastValue = -1;
+        for (TsidDriftPolicy overflowPolicy : overflowPolicies) {
+            for (int restart = 0; restart < 2; restart++) {
+                try (TsidHighWaterMark highWaterMark = TsidHighWaterMark.open(file, 100)) {
+                    // The clock stays behind the mark, which is a lease ahead of the last issued ID.
+                    final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder()
+                            .clock(millis::get)
+                            .overflowPolicy(overflowPolicy)
+                            .highWaterMark(highWaterMark)
+                            .build());
+                    final long value = generator.generateLong();
+                    Assertions.assertThat(value).isGreaterThan(lastValue);
+                    Assertions.assertThat(generator.generateLong()).isGreaterThan(value);
+                    Assertions.assertThat(generator.waitedNanos()).isZero();
+                    lastValue = generator.generateLong();
+                }
+            }
+        }
+    }
+
+    @Test
+    void testCoarseTicks() throws IOException {
+        final Path file = directory.resolve("tsid.hwm");
+        final TsidLayout layout = TsidLayout.builder()
+                .timestampBits(38).nodeBits(10).sequenceBits(15).tickMillis(8).build();
+        final AtomicLong millis = new AtomicLong(1_000_003L);
+        long lastValue;
+        try (TsidHighWaterMark highWaterMark = TsidHighWaterMark.open(file, 20)) {
+            final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder()
+                    .epoch(1_000)
+                    .layout(layout)
+                    .clock(millis::get)
+                    .highWaterMark(highWaterMark)
+                    .build());
+            lastValue = generator.generateLong();
+        }
+        try (TsidHighWaterMark highWaterMark = TsidHighWaterMark.open(file, 20)) {
+            final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder()
+                    .epoch(1_000)
+                    .layout(layout)
+                    .clock(millis::get)
+                    .highWaterMark(highWaterMark)
+                    .build());
+            Assertions.assertThat(generator.generateLong() >>> 25).isGreaterThan(lastValue >>> 25);
+        }
+    }
+}
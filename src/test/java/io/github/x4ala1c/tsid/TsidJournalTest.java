@@ -0,0 +1,207 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+final class TsidJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private static List<Long> scanAll(TsidJournal journal) {
+        final List<Long> result = new ArrayList<>();
+        journal.scan(0, Long.MAX_VALUE, result::add);
+        return result;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.toString().endsWith(".tsj")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testBuilder() {
+        Assertions.assertThatNullPointerException().isThrownBy(() -> TsidJournal.builder(null));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidJournal.builder(directory).segmentCapacity(0).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidJournal.builder(directory).segmentCapacity(100).blockSize(30).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidJournal.builder(directory).syncIntervalMillis(-1).build());
+        // With 2^27 IDs, a segment file has 2^30 bytes of IDs and 2^31 / blockSize bytes of index.
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidJournal.builder(directory).segmentCapacity(1 << 27).blockSize(1).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidJournal.builder(directory).segmentCapacity(1 << 27).blockSize(2).build())
+                .withMessageContaining("must not be larger than");
+        // With 1 ID per block, 24 bytes per ID: 89478484 IDs fit into 2147483632 bytes, one more does not.
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidJournal.builder(directory).segmentCapacity(89478485).blockSize(1).build());
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testAppendAndReopen() throws IOException {
+        final long[] values = new long[250];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1000L + i;
+        }
+        try (TsidJournal journal = TsidJournal.builder(directory).segmentCapacity(64).blockSize(16).build()) {
+            journal.append(values, 0, 200);
+            for (int i = 200; i < values.length; i++) {
+                journal.append(Tsid.fromLong(values[i]));
+            }
+            Assertions.assertThat(journal.size()).isEqualTo(values.length);
+            Assertions.assertThat(scanAll(journal)).hasSize(values.length);
+            Assertions.assertThatIllegalArgumentException().isThrownBy(() -> journal.append(-1));
+            Assertions.assertThatIllegalArgumentException()
+                    .isThrownBy(() -> journal.append(new long[]{1, -1}, 0, 2));
+            Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                    .isThrownBy(() -> journal.append(values, 200, 51));
+            Assertions.assertThat(journal.size()).isEqualTo(values.length);
+        }
+        Assertions.assertThat(segments()).hasSize(4);
+
+        try (TsidJournal journal = TsidJournal.builder(directory).build()) {
+            Assertions.assertThat(journal.size()).isEqualTo(values.length);
+            journal.append(5000);
+            final List<Long> scanned = scanAll(journal);
+            Assertions.assertThat(scanned).hasSize(values.length + 1);
+            for (int i = 0; i < values.length; i++) {
+                Assertions.assertThat(scanned.get(i)).isEqualTo(values[i]);
+            }
+            Assertions.assertThat(scanned.get(values.length)).isEqualTo(5000);
+        }
+        final TsidJournal closed = TsidJournal.builder(directory).build();
+        closed.close();
+        Assertions.assertThatIllegalStateException().isThrownBy(() -> closed.append(1));
+        Assertions.assertThatIllegalStateException().isThrownBy(() -> closed.scan(0, 1, value -> {
+        }));
+    }
+
+    @Test
+    void testScanRange() throws IOException {
+        final TsidConfiguration configuration = TsidConfiguration.builder().build();
+        try (TsidJournal journal = TsidJournal.builder(directory).segmentCapacity(1024).blockSize(64).build()) {
+            for (long millis = 0; millis < 5000; millis++) {
+                journal.append((millis << 22) | (millis % 4096));
+            }
+            final List<Long> scanned = new ArrayList<>();
+            journal.scan(Instant.ofEpochMilli(1500), Instant.ofEpochMilli(3499), configuration, scanned::add);
+            Assertions.assertThat(scanned).hasSize(2000);
+            Assertions.assertThat(Tsid.timestampOf(scanned.get(0), configuration)).isEqualTo(1500);
+            Assertions.assertThat(Tsid.timestampOf(scanned.get(1999), configuration)).isEqualTo(3499);
+
+            final List<Long> single = new ArrayList<>();
+            journal.scan(4999L << 22, Long.MAX_VALUE, single::add);
+            Assertions.assertThat(single).containsExactly((4999L << 22) | (4999 % 4096));
+        }
+    }
+
+    @Test
+    void testTailRecovery() throws IOException {
+        try (TsidJournal journal = TsidJournal.builder(directory).segmentCapacity(64).blockSize(16).build()) {
+            for (long value = 1; value <= 40; value++) {
+                journal.append(value);
+            }
+        }
+        final Path segment = segments().get(0);
+        final int dataOffset = 16 + 4 * 16;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // Simulates a crash that wrote slots 50 and 51 but not the ones in between.
+            final ByteBuffer torn = ByteBuffer.allocate(16);
+            torn.putLong(Long.MIN_VALUE | 50).putLong(Long.MIN_VALUE | 51).flip();
+            channel.write(torn, dataOffset + 50 * 8);
+            // Simulates a lost slot in the middle of the second block.
+            channel.write(ByteBuffer.allocate(8), dataOffset + 20 * 8);
+        }
+        try (TsidJournal journal = TsidJournal.builder(directory).segmentCapacity(64).blockSize(16).build()) {
+            Assertions.assertThat(journal.size()).isEqualTo(20);
+            journal.append(100);
+            final List<Long> scanned = scanAll(journal);
+            Assertions.assertThat(scanned).hasSize(21);
+            Assertions.assertThat(scanned.get(19)).isEqualTo(20);
+            Assertions.assertThat(scanned.get(20)).isEqualTo(100);
+            final List<Long> indexed = new ArrayList<>();
+            journal.scan(17, 18, indexed::add);
+            Assertions.assertThat(indexed).containsExactly(17L, 18L);
+        }
+    }
+
+    @Test
+    void testUnwrittenSegmentRecovery() throws IOException {
+        final int fileSize = 16 + 4 * 16 + 64 * 8;
+        for (int size : new int[]{0, 8, fileSize}) {
+            try (TsidJournal journal = TsidJournal.builder(directory).segmentCapacity(64).blockSize(16).build()) {
+                for (long value = journal.size() + 1; value <= 64; value++) {
+                    journal.append(value);
+                }
+            }
+            // Simulates a crash while rolling to the second segment, before its header was written.
+            final Path unwritten = directory.resolve(String.format("%019d.tsj", 1));
+            Files.write(unwritten, new byte[size]);
+            try (TsidJournal journal = TsidJournal.builder(directory).segmentCapacity(64).blockSize(16).build()) {
+                Assertions.assertThat(journal.size()).isEqualTo(64);
+                journal.append(65);
+                Assertions.assertThat(scanAll(journal)).hasSize(65).endsWith(64L, 65L);
+            }
+            Assertions.assertThat(segments()).hasSize(2);
+            Files.delete(unwritten);
+        }
+    }
+
+    @Test
+    void testSyncWhenIdle() throws IOException {
+        try (TsidJournal journal = TsidJournal.builder(directory).syncIntervalMillis(200).build()) {
+            journal.sync();
+            journal.append(1);
+            Assertions.assertThat(journal.isSynced()).isFalse();
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!journal.isSynced() && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+            }
+            Assertions.assertThat(journal.isSynced()).isTrue();
+        }
+    }
+
+    @Test
+    void testExclusiveLock() throws IOException {
+        try (TsidJournal journal = TsidJournal.builder(directory).build()) {
+            Assertions.assertThatIOException().isThrownBy(() -> TsidJournal.builder(directory).build())
+                    .withMessageContaining("already open");
+            journal.append(1);
+        }
+        try (TsidJournal journal = TsidJournal.builder(directory).build()) {
+            Assertions.assertThat(scanAll(journal)).containsExactly(1L);
+        }
+    }
+
+    @Test
+    void testSync() throws IOException {
+        try (TsidJournal journal = TsidJournal.builder(directory).syncIntervalMillis(0).segmentCapacity(16)
+                .blockSize(16).build()) {
+            journal.append(1);
+            journal.sync();
+        }
+        try (TsidJournal journal = TsidJournal.builder(directory).build()) {
+            Assertions.assertThat(scanAll(journal)).containsExactly(1L);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+final class TsidLayoutTest {
+
+    @Test
+    void testBuilder() {
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidLayout.builder().timestampBits(0).nodeBits(30).sequenceBits(30).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidLayout.builder().nodeBits(-1).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidLayout.builder().timestampBits(2).nodeBits(31).sequenceBits(30).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidLayout.builder().timestampBits(42).nodeBits(21).sequenceBits(0).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidLayout.builder().timestampBits(41).nodeBits(10).sequenceBits(13).build());
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidLayout.builder().tickMillis(0).build());
+        Assertions.assertThatNoException()
+                .isThrownBy(() -> TsidLayout.builder().timestampBits(43).nodeBits(0).sequenceBits(20).build());
+        Assertions.assertThatNoException()
+                .isThrownBy(() -> TsidLayout.builder().timestampBits(33).nodeBits(0).sequenceBits(30).build());
+    }
+
+    @Test
+    void testDefaultLayout() {
+        final TsidLayout layout = TsidLayout.defaultLayout();
+        Assertions.assertThat(layout.getTimestampBits()).isEqualTo(41);
+        Assertions.assertThat(layout.getNodeBits()).isEqualTo(10);
+        Assertions.assertThat(layout.getSequenceBits()).isEqualTo(12);
+        Assertions.assertThat(layout.getTickMillis()).isOne();
+        Assertions.assertThat(layout.getTimestampShift()).isEqualTo(22);
+        Assertions.assertThat(layout.getMaxNode()).isEqualTo(TsidConfiguration.MAX_NODE);
+        Assertions.assertThat(layout.getMaxSequence()).isEqualTo(TsidConfiguration.MAX_SEQUENCE);
+        Assertions.assertThat(TsidConfiguration.builder().build().getLayout()).isSameAs(layout);
+    }
+
+    @Test
+    void testExtractFields() {
+        final TsidLayout layout = TsidLayout.defaultLayout();
+        final long value = (12345L << 22) | (678L << 12) | 910L;
+        Assertions.assertThat(layout.timestampOf(value)).isEqualTo(12345);
+        Assertions.assertThat(layout.nodeOf(value)).isEqualTo(678);
+        Assertions.assertThat(layout.sequenceOf(value)).isEqualTo(910);
+    }
+
+    @Test
+    void testConfigurationNodeRange() {
+        final TsidLayout layout = TsidLayout.builder()
+                .timestampBits(41)
+                .nodeBits(4)
+                .sequenceBits(18)
+                .build();
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidConfiguration.builder().layout(layout).node(16).build());
+        Assertions.assertThatNullPointerException()
+                .isThrownBy(() -> TsidConfiguration.builder().layout(null).build());
+        Assertions.assertThatNoException()
+                .isThrownBy(() -> TsidConfiguration.builder().layout(layout).node(15).build());
+    }
+
+    @Test
+    void testGenerateWithLayout() {
+        final TsidLayout layout = TsidLayout.builder()
+                .timestampBits(43)
+                .nodeBits(2)
+                .sequenceBits(18)
+                .tickMillis(10)
+                .build();
+        final AtomicLong time = new AtomicLong(1_000_005);
+        final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder()
+                .node(3)
+                .epoch(5)
+                .clock(time::get)
+                .sequenceSeed(TsidSequenceSeed.ZERO)
+                .layout(layout)
+                .build());
+        final long[] ids = new long[layout.getMaxSequence() + 2];
+        generator.fill(ids);
+        Assertions.assertThat(layout.timestampOf(ids[0])).isEqualTo(100_000);
+        Assertions.assertThat(layout.nodeOf(ids[0])).isEqualTo(3);
+        Assertions.assertThat(layout.sequenceOf(ids[0])).isZero();
+        Assertions.assertThat(layout.sequenceOf(ids[layout.getMaxSequence()])).isEqualTo(layout.getMaxSequence());
+        Assertions.assertThat(layout.timestampOf(ids[ids.length - 1])).isEqualTo(100_001);
+        Assertions.assertThat(layout.sequenceOf(ids[ids.length - 1])).isZero();
+        Assertions.assertThat(generator.driftMillis()).isEqualTo(10);
+
+        time.set(1_000_025);
+        final long value = generator.generateLong();
+        Assertions.assertThat(layout.timestampOf(value)).isEqualTo(100_002);
+        Assertions.assertThat(layout.nodeOf(value)).isEqualTo(3);
+    }
+
+    @Test
+    void testTimestampRange() {
+        final TsidLayout layout = TsidLayout.builder()
+                .timestampBits(33)
+                .nodeBits(0)
+                .sequenceBits(30)
+                .build();
+        final AtomicLong time = new AtomicLong(1L << 33);
+        final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder()
+                .epoch(0)
+                .clock(time::get)
+                .layout(layout)
+                .build());
+        Assertions.assertThatIllegalStateException().isThrownBy(generator::generateLong);
+        time.set((1L << 33) - 1);
+        Assertions.assertThat(generator.generateLong()).isNotNegative();
+
+        final TsidGenerator beforeEpoch = TsidGenerator.generator(TsidConfiguration.builder()
+                .epoch(1000)
+                .clock(() -> 999)
+                .build());
+        Assertions.assertThatIllegalStateException().isThrownBy(beforeEpoch::generateLong);
+    }
+
+    @Test
+    void testStripedWithLayout() {
+        final TsidLayout layout = TsidLayout.builder()
+                .timestampBits(41)
+                .nodeBits(4)
+                .sequenceBits(18)
+                .build();
+        final TsidConfiguration configuration = TsidConfiguration.builder()
+                .node(1)
+                .layout(layout)
+                .build();
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> StripedTsidGenerator.generator(configuration, 5));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> StripedTsidGenerator.generator(configuration, 4));
+        final StripedTsidGenerator generator = StripedTsidGenerator.generator(configuration, 3);
+        Assertions.assertThat(layout.nodeOf(generator.generateLong()) >> 3).isEqualTo(1);
+        Assertions.assertThat(TsidGeneratorPool.pool(configuration).available()).isEqualTo(16);
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+final class TsidLongMapTest {
+
+    @Test
+    @SuppressWarnings("all")
+    void testPutGetRemove() {
+        final TsidLongMap<String> map = new TsidLongMap<>();
+        final Tsid tsid = Tsid.fromLong(175928847299117063L);
+        Assertions.assertThat(map.put(tsid, "first")).isNull();
+        Assertions.assertThat(map.put(tsid.asLong(), "second")).isEqualTo("first");
+        Assertions.assertThat(map.get(tsid)).isEqualTo("second");
+        Assertions.assertThat(map.get(0)).isNull();
+        Assertions.assertThat(map.get(-1)).isNull();
+        Assertions.assertThat(map.get((Tsid) null)).isNull();
+        Assertions.assertThat(map.containsKey(tsid.asLong())).isTrue();
+        Assertions.assertThat(map.size()).isEqualTo(1);
+
+        Assertions.assertThat(map.remove(tsid.asLong())).isEqualTo("second");
+        Assertions.assertThat(map.remove(tsid.asLong())).isNull();
+        Assertions.assertThat(map.isEmpty()).isTrue();
+
+        map.put(1, "one");
+        map.clear();
+        Assertions.assertThat(map.get(1)).isNull();
+        Assertions.assertThat(map.isEmpty()).isTrue();
+
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> map.put(-1, "negative"));
+        Assertions.assertThatNullPointerException().isThrownBy(() -> map.put(1, null));
+        Assertions.assertThatNullPointerException().isThrownBy(() -> map.put((Tsid) null, "null"));
+        Assertions.assertThatNullPointerException().isThrownBy(() -> map.forEach(null));
+    }
+
+    @Test
+    void testAgainstHashMap() {
+        final Random random = new Random(42);
+        final TsidGenerator generator = TsidGenerator.defaultGenerator();
+        final long[] ids = new long[20_000];
+        generator.fill(ids);
+        final TsidLongMap<Integer> map = new TsidLongMap<>(1000);
+        final Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            final long key = ids[random.nextInt(ids.length)];
+            if (random.nextInt(3) == 0) {
+                Assertions.assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                Assertions.assertThat(map.put(key, i)).isEqualTo(expected.put(key, i));
+            }
+        }
+        Assertions.assertThat(map.size()).isEqualTo(expected.size());
+        for (long key : ids) {
+            Assertions.assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+        final Map<Long, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        Assertions.assertThat(visited).isEqualTo(expected);
+    }
+}
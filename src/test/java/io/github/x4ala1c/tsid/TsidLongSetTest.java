@@ -0,0 +1,74 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+final class TsidLongSetTest {
+
+    @Test
+    @SuppressWarnings("all")
+    void testConstructor() {
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> new TsidLongSet(-1));
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> new TsidLongSet(Integer.MAX_VALUE));
+        Assertions.assertThat(new TsidLongSet(100).isEmpty()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testAddContainsRemove() {
+        final TsidLongSet set = new TsidLongSet();
+        Assertions.assertThat(set.add(0)).isTrue();
+        Assertions.assertThat(set.add(0)).isFalse();
+        Assertions.assertThat(set.add(Tsid.fromLong(Long.MAX_VALUE))).isTrue();
+        Assertions.assertThat(set.contains(0)).isTrue();
+        Assertions.assertThat(set.contains(Tsid.fromLong(Long.MAX_VALUE))).isTrue();
+        Assertions.assertThat(set.contains(1)).isFalse();
+        Assertions.assertThat(set.contains(-1)).isFalse();
+        Assertions.assertThat(set.contains((Tsid) null)).isFalse();
+        Assertions.assertThat(set.size()).isEqualTo(2);
+        Assertions.assertThat(set.toArray()).containsExactlyInAnyOrder(0, Long.MAX_VALUE);
+
+        Assertions.assertThat(set.remove(0)).isTrue();
+        Assertions.assertThat(set.remove(0)).isFalse();
+        Assertions.assertThat(set.remove(-1)).isFalse();
+        Assertions.assertThat(set.contains(0)).isFalse();
+        Assertions.assertThat(set.size()).isEqualTo(1);
+
+        set.clear();
+        Assertions.assertThat(set.isEmpty()).isTrue();
+        Assertions.assertThat(set.contains(Long.MAX_VALUE)).isFalse();
+
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> set.add(-1));
+        Assertions.assertThatNullPointerException().isThrownBy(() -> set.add((Tsid) null));
+        Assertions.assertThatNullPointerException().isThrownBy(() -> set.forEach(null));
+    }
+
+    @Test
+    void testAgainstHashSet() {
+        final Random random = new Random(42);
+        final TsidGenerator generator = TsidGenerator.defaultGenerator();
+        final long[] ids = new long[20_000];
+        generator.fill(ids);
+        final TsidLongSet set = new TsidLongSet();
+        final Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            final long value = ids[random.nextInt(ids.length)];
+            if (random.nextInt(3) == 0) {
+                Assertions.assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+            } else {
+                Assertions.assertThat(set.add(value)).isEqualTo(expected.add(value));
+            }
+        }
+        Assertions.assertThat(set.size()).isEqualTo(expected.size());
+        for (long value : ids) {
+            Assertions.assertThat(set.contains(value)).isEqualTo(expected.contains(value));
+        }
+        final Set<Long> visited = new HashSet<>();
+        set.forEach(visited::add);
+        Assertions.assertThat(visited).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junitpioneer.jupiter.SetSystemProperty;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+final class TsidMetricsTest {
+
+    private static final int SEQUENCE_SIZE = TsidConfiguration.MAX_SEQUENCE + 1;
+
+    private final AtomicLong time = new AtomicLong(1_000_000);
+
+    private TsidGenerator generator(boolean metrics) {
+        return TsidGenerator.generator(TsidConfiguration.builder()
+                .epoch(0)
+                .clock(time::get)
+                .sequenceSeed(TsidSequenceSeed.ZERO)
+                .metrics(metrics)
+                .build());
+    }
+
+    @Test
+    void testDisabled() {
+        Assertions.assertThat(generator(false).metrics()).isNull();
+        Assertions.assertThat(TsidGenerator.threadGenerator().metrics()).isNull();
+    }
+
+    @Test
+    @SetSystemProperty(key = "tsid.metrics", value = "true")
+    void testEnabledFromEnvironment() {
+        Assertions.assertThat(TsidGenerator.defaultGenerator().metrics()).isNotNull();
+    }
+
+    @Test
+    void testCounters() {
+        final TsidGenerator generator = generator(true);
+        final TsidMetrics metrics = generator.metrics();
+        generator.generateLong();
+        generator.fill(new long[SEQUENCE_SIZE * 2]);
+        Assertions.assertThat(metrics.getGenerated()).isEqualTo(SEQUENCE_SIZE * 2 + 1);
+        Assertions.assertThat(metrics.getOverflows()).isEqualTo(1);
+        Assertions.assertThat(metrics.getDriftMillis()).isEqualTo(2);
+        Assertions.assertThat(metrics.getClockRegressions()).isZero();
+
+        time.set(999_000);
+        generator.generateLong();
+        Assertions.assertThat(metrics.getClockRegressions()).isEqualTo(1);
+
+        final TsidMetrics.Snapshot snapshot = metrics.snapshot();
+        Assertions.assertThat(snapshot.generated()).isEqualTo(SEQUENCE_SIZE * 2 + 2);
+        Assertions.assertThat(snapshot.overflows()).isEqualTo(1);
+        Assertions.assertThat(snapshot.clockRegressions()).isEqualTo(1);
+        Assertions.assertThat(snapshot.driftMillis()).isEqualTo(1002);
+        Assertions.assertThat(snapshot.waitedNanos()).isZero();
+        Assertions.assertThat(snapshot.toString()).contains("generated=" + (SEQUENCE_SIZE * 2 + 2));
+    }
+
+    @Test
+    void testConcurrentCounters() {
+        final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder().metrics(true).build());
+        IntStream.range(0, 100_000).parallel().forEach(i -> generator.generateLong());
+        final TsidMetrics.Snapshot snapshot = generator.metrics().snapshot();
+        Assertions.assertThat(snapshot.generated()).isEqualTo(100_000);
+        Assertions.assertThat(snapshot.contentions()).isNotNegative();
+    }
+
+    @Test
+    void testContentionsCountReservations() throws InterruptedException {
+        final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder().metrics(true).build());
+        final int threadCount = Math.max(4, Runtime.getRuntime().availableProcessors());
+        final int reservations = 5_000;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(() -> {
+                final long[] values = new long[16];
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < reservations; j++) {
+                    generator.fill(values);
+                }
+            });
+            threads[i].start();
+        }
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        final TsidMetrics.Snapshot snapshot = generator.metrics().snapshot();
+        Assertions.assertThat(snapshot.generated()).isEqualTo(16L * reservations * threadCount);
+        // Each fill is a single reservation, counted at most once, however many times it was retried.
+        Assertions.assertThat(snapshot.contentions()).isBetween(0L, (long) reservations * threadCount);
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testRegister() throws JMException {
+        final TsidMetrics metrics = generator(true).metrics();
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Assertions.assertThatNullPointerException().isThrownBy(() -> metrics.register(null));
+        final ObjectName objectName = metrics.register("test");
+        try {
+            Assertions.assertThat(objectName.getKeyProperty("type")).isEqualTo("TsidGenerator");
+            Assertions.assertThatIllegalStateException().isThrownBy(() -> metrics.register("other"));
+            Assertions.assertThatIllegalStateException()
+                    .isThrownBy(() -> generator(true).metrics().register("test"));
+            Assertions.assertThat(server.getAttribute(objectName, "Generated")).isEqualTo(0L);
+        } finally {
+            metrics.unregister();
+        }
+        Assertions.assertThat(server.isRegistered(objectName)).isFalse();
+        metrics.unregister();
+    }
+}
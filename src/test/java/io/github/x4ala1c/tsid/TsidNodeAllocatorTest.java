@@ -0,0 +1,81 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junitpioneer.jupiter.SetSystemProperty;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+final class TsidNodeAllocatorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @SuppressWarnings("all")
+    void testClaimArguments() {
+        Assertions.assertThatNullPointerException().isThrownBy(() -> TsidNodeAllocator.claim(null));
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> TsidNodeAllocator.claim(directory, -1, 3));
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> TsidNodeAllocator.claim(directory, 3, 2));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> TsidNodeAllocator.claim(directory, 0, 1 << 16));
+    }
+
+    @Test
+    void testUniqueNodes() throws IOException {
+        final List<TsidNodeAllocator> allocators = new ArrayList<>();
+        try {
+            final Set<Integer> nodes = new HashSet<>();
+            for (int i = 0; i < 8; i++) {
+                final TsidNodeAllocator allocator = TsidNodeAllocator.claim(directory, 10, 17);
+                allocators.add(allocator);
+                Assertions.assertThat(allocator.node()).isBetween(10, 17);
+                nodes.add(allocator.node());
+            }
+            Assertions.assertThat(nodes).hasSize(8);
+            Assertions.assertThatIllegalStateException().isThrownBy(() -> TsidNodeAllocator.claim(directory, 10, 17));
+
+            final TsidNodeAllocator released = allocators.remove(3);
+            released.close();
+            released.close();
+            final TsidNodeAllocator reclaimed = TsidNodeAllocator.claim(directory, 10, 17);
+            allocators.add(reclaimed);
+            Assertions.assertThat(reclaimed.node()).isEqualTo(released.node());
+        } finally {
+            for (TsidNodeAllocator allocator : allocators) {
+                allocator.close();
+            }
+        }
+    }
+
+    @Test
+    void testPrefersOldestHeartbeat() throws IOException {
+        try (TsidNodeAllocator first = TsidNodeAllocator.claim(directory, 0, 2)) {
+            Assertions.assertThat(first.node()).isZero();
+            final int released;
+            try (TsidNodeAllocator second = TsidNodeAllocator.claim(directory, 0, 2)) {
+                released = second.node();
+                Assertions.assertThat(released).isEqualTo(1);
+            }
+            try (TsidNodeAllocator third = TsidNodeAllocator.claim(directory, 0, 2)) {
+                Assertions.assertThat(third.node()).isEqualTo(2);
+            }
+        }
+    }
+
+    @Test
+    @SetSystemProperty(key = "tsid.node.directory", value = "target/tsid-node-directory")
+    void testConfigurationFromEnvironment() {
+        final int node = TsidConfiguration.fromEnvironment().getNode();
+        Assertions.assertThat(TsidConfiguration.fromEnvironment().getNode()).isEqualTo(node);
+        Assertions.assertThat(TsidNodeAllocator.environmentNode(Paths.get("target/tsid-node-directory")))
+                .isEqualTo(node);
+    }
+}
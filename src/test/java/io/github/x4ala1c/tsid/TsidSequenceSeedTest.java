@@ -0,0 +1,66 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+final class TsidSequenceSeedTest {
+
+    @ParameterizedTest
+    @EnumSource(TsidSequenceSeed.class)
+    void testSourceInBound(TsidSequenceSeed sequenceSeed) {
+        final TsidSequenceSeed.Source source = sequenceSeed.newSource();
+        for (int i = 0; i < 10000; i++) {
+            Assertions.assertThat(source.next(TsidConfiguration.MAX_SEQUENCE + 1))
+                    .isBetween(0, TsidConfiguration.MAX_SEQUENCE);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(TsidSequenceSeed.class)
+    void testGenerateWithSequenceSeed(TsidSequenceSeed sequenceSeed) {
+        final AtomicLong time = new AtomicLong(1_000_000);
+        final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder()
+                .epoch(0)
+                .clock(time::get)
+                .sequenceSeed(sequenceSeed)
+                .build());
+        long prevValue = -1;
+        for (int i = 0; i < 100; i++) {
+            time.incrementAndGet();
+            for (int j = 0; j < 100; j++) {
+                final long value = generator.generateLong();
+                Assertions.assertThat(value).isGreaterThan(prevValue);
+                prevValue = value;
+            }
+        }
+    }
+
+    @Test
+    void testZeroSequenceSeed() {
+        final AtomicLong time = new AtomicLong(1_000_000);
+        final TsidGenerator generator = TsidGenerator.generator(TsidConfiguration.builder()
+                .epoch(0)
+                .clock(time::get)
+                .sequenceSeed(TsidSequenceSeed.ZERO)
+                .build());
+        Assertions.assertThat(generator.generateLong() & TsidConfiguration.MAX_SEQUENCE).isZero();
+        Assertions.assertThat(generator.generateLong() & TsidConfiguration.MAX_SEQUENCE).isOne();
+        time.incrementAndGet();
+        Assertions.assertThat(generator.generateLong() & TsidConfiguration.MAX_SEQUENCE).isZero();
+    }
+
+    @Test
+    void testSplittableRandomSourcesDiffer() {
+        final TsidSequenceSeed.Source first = TsidSequenceSeed.SPLITTABLE_RANDOM.newSource();
+        final TsidSequenceSeed.Source second = TsidSequenceSeed.SPLITTABLE_RANDOM.newSource();
+        boolean differ = false;
+        for (int i = 0; i < 16 && !differ; i++) {
+            differ = first.next(1 << 30) != second.next(1 << 30);
+        }
+        Assertions.assertThat(differ).isTrue();
+    }
+}
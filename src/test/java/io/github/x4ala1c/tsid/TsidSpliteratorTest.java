@@ -0,0 +1,60 @@
+package io.github.x4ala1c.tsid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class TsidSpliteratorTest {
+
+    @Test
+    void testLongs() {
+        final TsidGenerator generator = TsidGenerator.defaultGenerator();
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> generator.longs(-1));
+        Assertions.assertThat(generator.longs(0).toArray()).isEmpty();
+
+        final long[] ids = generator.longs(10000).toArray();
+        Assertions.assertThat(ids).hasSize(10000);
+        for (int i = 1; i < ids.length; i++) {
+            Assertions.assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+        }
+    }
+
+    @Test
+    void testParallelLongs() {
+        final TsidGenerator generator = TsidGenerator.defaultGenerator();
+        final long[] ids = generator.longs(1_000_000).parallel().toArray();
+        Assertions.assertThat(ids).hasSize(1_000_000);
+        Assertions.assertThat(Arrays.stream(ids).distinct().count()).isEqualTo(ids.length);
+    }
+
+    @Test
+    void testTsids() {
+        final TsidGenerator generator = TsidGenerator.defaultGenerator();
+        Assertions.assertThat(generator.tsids(5000).toArray(Tsid[]::new))
+                .hasSize(5000)
+                .isSorted()
+                .doesNotHaveDuplicates();
+        Assertions.assertThat(generator.tsids(100_000).parallel().distinct().count()).isEqualTo(100_000);
+    }
+
+    @Test
+    void testSplit() {
+        final Spliterator.OfLong spliterator = new TsidSpliterator(TsidGenerator.defaultGenerator(), 10000);
+        Assertions.assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED)).isTrue();
+        Assertions.assertThat(spliterator.getExactSizeIfKnown()).isEqualTo(10000);
+        final AtomicLong consumed = new AtomicLong();
+        Assertions.assertThat(spliterator.tryAdvance((long value) -> consumed.incrementAndGet())).isTrue();
+
+        final Spliterator.OfLong split = spliterator.trySplit();
+        Assertions.assertThat(split).isNotNull();
+        Assertions.assertThat(split.estimateSize() + spliterator.estimateSize()).isEqualTo(9999);
+        split.forEachRemaining((long value) -> consumed.incrementAndGet());
+        spliterator.forEachRemaining((long value) -> consumed.incrementAndGet());
+        Assertions.assertThat(consumed.get()).isEqualTo(10000);
+        Assertions.assertThat(spliterator.tryAdvance((long value) -> consumed.incrementAndGet())).isFalse();
+        Assertions.assertThat(new TsidSpliterator(TsidGenerator.defaultGenerator(), 100).trySplit()).isNull();
+    }
+}
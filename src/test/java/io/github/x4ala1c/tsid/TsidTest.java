@@ -2,6 +2,20 @@ package io.github.x4ala1c.tsid;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junitpioneer.jupiter.SetSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Paths;
+import java.time.Instant;
 
 final class TsidTest {
 
@@ -61,6 +75,22 @@ final class TsidTest {
         Assertions.assertThatNoException().isThrownBy(() -> Tsid.fromString("ABCDEFGHIJKLM"));
         Assertions.assertThatNoException().isThrownBy(() -> Tsid.fromString("abcdefghijklm"));
         Assertions.assertThat(Tsid.fromString(tsidValueString)).isEqualTo(tsidToTest);
+        Assertions.assertThat(Tsid.fromString("\t " + tsidValueString + "\n")).isEqualTo(tsidToTest);
+    }
+
+    @Test
+    void testTsidTryParse() {
+        Assertions.assertThat(Tsid.tryParse(tsidValueString)).isEqualTo(tsidValueLong);
+        Assertions.assertThat(Tsid.tryParse(" " + tsidValueString.toLowerCase() + " ")).isEqualTo(tsidValueLong);
+        Assertions.assertThat(Tsid.tryParse(null)).isEqualTo(CrockfordCodec.INVALID);
+        Assertions.assertThat(Tsid.tryParse("")).isEqualTo(CrockfordCodec.INVALID);
+        Assertions.assertThat(Tsid.tryParse("ABCDEFGHIJKLMN")).isEqualTo(CrockfordCodec.INVALID);
+        Assertions.assertThat(Tsid.tryParse("ABCD$FGHIJKLM")).isEqualTo(CrockfordCodec.INVALID);
+        Assertions.assertThat(Tsid.tryParse("ZZZZZZZZZZZZZ")).isEqualTo(CrockfordCodec.INVALID);
+        Assertions.assertThat(Tsid.isValid(tsidValueString)).isTrue();
+        Assertions.assertThat(Tsid.isValid("ABCDEFGHIJKLM")).isTrue();
+        Assertions.assertThat(Tsid.isValid("ABCDEFGHIJKL%")).isFalse();
+        Assertions.assertThat(Tsid.isValid(null)).isFalse();
     }
 
     @Test
@@ -87,4 +117,176 @@ final class TsidTest {
         final Tsid third = Tsid.fromLong(0);
         Assertions.assertThat(first).isEqualByComparingTo(third);
     }
+
+    @Test
+    @SuppressWarnings("all")
+    void testTsidBytes() {
+        final byte[] bytes = tsidToTest.toBytes();
+        Assertions.assertThat(bytes).hasSize(Tsid.BYTES);
+        Assertions.assertThat(ByteBuffer.wrap(bytes).getLong()).isEqualTo(tsidValueLong);
+        Assertions.assertThat(Tsid.fromBytes(bytes)).isEqualTo(tsidToTest);
+
+        final byte[] destination = new byte[10];
+        tsidToTest.toBytes(destination, 2);
+        Assertions.assertThat(Tsid.fromBytes(destination, 2)).isEqualTo(tsidToTest);
+
+        Assertions.assertThatNullPointerException().isThrownBy(() -> Tsid.fromBytes(null));
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> Tsid.fromBytes(new byte[7]));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> Tsid.fromBytes(new byte[]{(byte) 0x80, 0, 0, 0, 0, 0, 0, 0}));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> Tsid.fromBytes(destination, 3));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> tsidToTest.toBytes(destination, -1));
+    }
+
+    @Test
+    void testTsidBytesOrder() {
+        final long[] values = {0, 1, 255, 256, 0xFF00, tsidValueLong, Long.MAX_VALUE - 1, Long.MAX_VALUE};
+        for (long first : values) {
+            for (long second : values) {
+                final byte[] firstBytes = Tsid.fromLong(first).toBytes();
+                final byte[] secondBytes = Tsid.fromLong(second).toBytes();
+                int byteOrder = 0;
+                for (int i = 0; i < Tsid.BYTES && byteOrder == 0; i++) {
+                    byteOrder = Integer.compare(firstBytes[i] & 0xFF, secondBytes[i] & 0xFF);
+                }
+                Assertions.assertThat(Integer.signum(byteOrder))
+                        .isEqualTo(Integer.signum(Tsid.fromLong(first).compareTo(Tsid.fromLong(second))));
+            }
+        }
+    }
+
+    @Test
+    void testTsidByteBuffer() {
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(2 * Tsid.BYTES).order(order);
+            tsidToTest.writeTo(buffer);
+            Tsid.fromLong(1).writeTo(buffer);
+            Assertions.assertThat(buffer.position()).isEqualTo(2 * Tsid.BYTES);
+            buffer.flip();
+            final byte[] bytes = new byte[Tsid.BYTES];
+            buffer.duplicate().get(bytes);
+            Assertions.assertThat(bytes).isEqualTo(tsidToTest.toBytes());
+            Assertions.assertThat(Tsid.readFrom(buffer)).isEqualTo(tsidToTest);
+            Assertions.assertThat(Tsid.readFrom(buffer)).isEqualTo(Tsid.fromLong(1));
+        }
+    }
+
+    /**
+     * Writes a {@link Tsid} in the default serialized form of earlier releases, which had the single field
+     * {@code long value}.
+     */
+    private static byte[] legacySerializedForm(long value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeShort(ObjectStreamConstants.STREAM_MAGIC);
+            output.writeShort(ObjectStreamConstants.STREAM_VERSION);
+            output.writeByte(ObjectStreamConstants.TC_OBJECT);
+            output.writeByte(ObjectStreamConstants.TC_CLASSDESC);
+            output.writeUTF(Tsid.class.getName());
+            output.writeLong(1L);
+            output.writeByte(ObjectStreamConstants.SC_SERIALIZABLE);
+            output.writeShort(1);
+            output.writeByte('J');
+            output.writeUTF("value");
+            output.writeByte(ObjectStreamConstants.TC_ENDBLOCKDATA);
+            output.writeByte(ObjectStreamConstants.TC_NULL);
+            output.writeLong(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void testLegacySerialization() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream input = new ObjectInputStream(
+                new ByteArrayInputStream(legacySerializedForm(tsidToTest.asLong())))) {
+            final Object result = input.readObject();
+            Assertions.assertThat(result).isInstanceOf(Tsid.class).isEqualTo(tsidToTest);
+            Assertions.assertThat(result.toString()).isEqualTo(tsidToTest.toString());
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(legacySerializedForm(-1)))) {
+            Assertions.assertThatExceptionOfType(InvalidObjectException.class).isThrownBy(input::readObject);
+        }
+    }
+
+    @Test
+    void testTsidSerialization() throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(tsidToTest);
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final Object result = input.readObject();
+            Assertions.assertThat(result).isInstanceOf(Tsid.class).isEqualTo(tsidToTest);
+        }
+
+        final ByteArrayOutputStream invalid = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(invalid)) {
+            output.writeObject(new Tsid.SerializationProxy(-1));
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(invalid.toByteArray()))) {
+            Assertions.assertThatExceptionOfType(InvalidObjectException.class).isThrownBy(input::readObject);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testTsidFields() {
+        final TsidConfiguration configuration = TsidConfiguration.builder().node(5).epoch(1_000).build();
+        final long value = (1234L << 22) | (5L << 12) | 678;
+        final Tsid tsid = Tsid.fromLong(value);
+        Assertions.assertThat(Tsid.timestampOf(value, configuration)).isEqualTo(2_234);
+        Assertions.assertThat(Tsid.nodeOf(value, configuration)).isEqualTo(5);
+        Assertions.assertThat(Tsid.sequenceOf(value, configuration)).isEqualTo(678);
+        Assertions.assertThat(tsid.timestamp(configuration)).isEqualTo(2_234);
+        Assertions.assertThat(tsid.instant(configuration)).isEqualTo(Instant.ofEpochMilli(2_234));
+        Assertions.assertThat(tsid.node(configuration)).isEqualTo(5);
+        Assertions.assertThat(tsid.sequence(configuration)).isEqualTo(678);
+
+        final TsidConfiguration coarse = TsidConfiguration.builder()
+                .layout(TsidLayout.builder().timestampBits(39).nodeBits(8).sequenceBits(16).tickMillis(10).build())
+                .build();
+        final long coarseValue = (1234L << 24) | (200L << 16) | 60_000;
+        Assertions.assertThat(Tsid.timestampOf(coarseValue, coarse)).isEqualTo(12_340);
+        Assertions.assertThat(Tsid.nodeOf(coarseValue, coarse)).isEqualTo(200);
+        Assertions.assertThat(Tsid.sequenceOf(coarseValue, coarse)).isEqualTo(60_000);
+
+        Assertions.assertThatNullPointerException().isThrownBy(() -> Tsid.nodeOf(value, null));
+        Assertions.assertThatNullPointerException().isThrownBy(() -> tsid.instant(null));
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    void testTsidBounds() {
+        final TsidConfiguration configuration = TsidConfiguration.builder().epoch(1_000).build();
+        final Instant instant = Instant.ofEpochMilli(2_234);
+        Assertions.assertThat(Tsid.lowerBound(instant, configuration).asLong()).isEqualTo(1234L << 22);
+        Assertions.assertThat(Tsid.upperBound(instant, configuration).asLong()).isEqualTo((1235L << 22) - 1);
+        Assertions.assertThat(Tsid.lowerBound(Instant.ofEpochMilli(0), configuration).asLong()).isZero();
+        Assertions.assertThat(Tsid.upperBound(Instant.ofEpochMilli(1_000), configuration).asLong())
+                .isEqualTo((1L << 22) - 1);
+        Assertions.assertThat(Tsid.upperBound(Instant.ofEpochMilli(Long.MAX_VALUE), configuration).asLong())
+                .isEqualTo(Long.MAX_VALUE);
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> Tsid.upperBound(Instant.ofEpochMilli(999), configuration));
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> Tsid.lowerBound(Instant.ofEpochMilli(Long.MAX_VALUE), configuration));
+        Assertions.assertThatNullPointerException().isThrownBy(() -> Tsid.lowerBound(null, configuration));
+        Assertions.assertThatNullPointerException().isThrownBy(() -> Tsid.upperBound(instant, null));
+
+        final Tsid generated = TsidGenerator.defaultGenerator().generate();
+        final Instant now = Instant.now();
+        Assertions.assertThat(Tsid.lowerBound(now.minusSeconds(1))).isLessThan(generated);
+        Assertions.assertThat(Tsid.upperBound(now.plusSeconds(1))).isGreaterThan(generated);
+    }
+
+    @Test
+    @SetSystemProperty(key = "tsid.epoch", value = "1000")
+    @SetSystemProperty(key = "tsid.node.directory", value = "target/tsid-bounds-directory")
+    void testBoundsFromEnvironment() {
+        Assertions.assertThat(Tsid.lowerBound(Instant.ofEpochMilli(1234)).asLong()).isEqualTo(234L << 22);
+        Assertions.assertThat(Tsid.upperBound(Instant.ofEpochMilli(1234)).asLong()).isEqualTo((235L << 22) - 1);
+        Assertions.assertThat(Paths.get("target/tsid-bounds-directory")).doesNotExist();
+    }
 }